@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat.painters;
+
+import ca.phon.plugins.praat.ColorMap;
+
+import java.util.*;
+
+/**
+ * Benchmark of {@link SpectrogramDbEngine} against the previous
+ * per-cell implementation of <code>SpectrogramPainter</code> using
+ * synthetic 10s and 60s spectrograms with default settings (2ms time
+ * step, 20Hz frequency step up to 5000Hz.)
+ *
+ * This class is not part of the plugin.  To run, compile the plugin
+ * and then:
+ *
+ * <pre>
+ * javac -cp target/classes:&lt;jpraat jar&gt; -d target/benchmark-classes \
+ *     src/benchmark/java/ca/phon/plugins/praat/painters/SpectrogramDbBenchmark.java
+ * java -cp target/classes:target/benchmark-classes:&lt;jpraat jar&gt; \
+ *     ca.phon.plugins.praat.painters.SpectrogramDbBenchmark
+ * </pre>
+ *
+ */
+public class SpectrogramDbBenchmark {
+
+	private final static double NUMln2 = 0.6931471805599453094172321214581765680755;
+	private final static double NUMln10 = 2.3025850929940456840179914546843642076011;
+
+	private final static double TIME_STEP = 0.002;
+
+	private final static double FREQUENCY_STEP = 20.0;
+
+	private final static int NUM_BINS = 250;
+
+	private final static double PREEMPHASIS = 6.0;
+
+	private final static double DYNAMIC_COMPRESSION = 0.0;
+
+	private final static double DYNAMIC_RANGE = 70.0;
+
+	private final static int WARMUP_RUNS = 5;
+
+	private final static int TIMED_RUNS = 10;
+
+	public static void main(String[] args) {
+		System.out.println(String.format("%d processors, %s", Runtime.getRuntime().availableProcessors(),
+				System.getProperty("java.vm.name") + " " + System.getProperty("java.version")));
+		final int[] colors = ColorMap.getGreyscale(255).getColors();
+		for(double duration:new double[] { 10.0, 60.0 }) {
+			final SpectrogramMatrix matrix = createMatrix(duration);
+			final int nx = matrix.getNx();
+			final int ny = matrix.getNy();
+			final float[] values = new float[nx * ny];
+			final int[] pixels = new int[nx * ny];
+			final double[] table = SpectrogramDbEngine.preemphasisTable(ny, matrix.getDy(), PREEMPHASIS);
+			final double maximum = SpectrogramDbEngine.normalise(matrix, table, DYNAMIC_COMPRESSION, values);
+
+			System.out.println(String.format("%.0fs spectrogram (%d frames x %d bins)", duration, nx, ny));
+			report("normalise previous", () -> legacyNormalise(matrix, PREEMPHASIS, DYNAMIC_COMPRESSION));
+			report("normalise engine sequential", () -> {
+				final float[] out = new float[nx * ny];
+				SpectrogramDbEngine.normalise(matrix,
+						SpectrogramDbEngine.preemphasisTable(ny, matrix.getDy(), PREEMPHASIS), DYNAMIC_COMPRESSION, out, false);
+			});
+			report("normalise engine parallel", () -> {
+				final float[] out = new float[nx * ny];
+				SpectrogramDbEngine.normalise(matrix,
+						SpectrogramDbEngine.preemphasisTable(ny, matrix.getDy(), PREEMPHASIS), DYNAMIC_COMPRESSION, out, true);
+			});
+			report("colourise previous", () -> legacyColourise(values, nx, ny, 0.0, maximum, colors, pixels));
+			report("colourise engine sequential", () ->
+				SpectrogramDbEngine.colourise(values, nx, ny, 0.0, maximum, DYNAMIC_RANGE, colors, pixels, false));
+			report("colourise engine parallel", () ->
+				SpectrogramDbEngine.colourise(values, nx, ny, 0.0, maximum, DYNAMIC_RANGE, colors, pixels, true));
+		}
+	}
+
+	private static SpectrogramMatrix createMatrix(double duration) {
+		final int nx = (int)Math.round(duration / TIME_STEP);
+		final float[] values = new float[nx * NUM_BINS];
+		final Random random = new Random(42L);
+		for(int i = 0; i < values.length; i++) {
+			// exponentially distributed power, similar range to speech
+			values[i] = (float)(-Math.log(1.0 - random.nextDouble()) * 1.0e-5);
+		}
+		return SpectrogramMatrix.of(0.0, duration, TIME_STEP, TIME_STEP / 2.0, NUM_BINS, FREQUENCY_STEP, values);
+	}
+
+	private static void report(String name, Runnable task) {
+		for(int i = 0; i < WARMUP_RUNS; i++) task.run();
+		final double[] times = new double[TIMED_RUNS];
+		for(int i = 0; i < TIMED_RUNS; i++) {
+			final long startTime = System.nanoTime();
+			task.run();
+			times[i] = (System.nanoTime() - startTime) / 1.0e6;
+		}
+		Arrays.sort(times);
+		System.out.println(String.format("  %-30s median %8.2f ms  min %8.2f ms", name, times[TIMED_RUNS / 2], times[0]));
+	}
+
+	/*
+	 * Previous implementation of SpectrogramPainter normalisation
+	 */
+	private static float[] legacyNormalise(SpectrogramMatrix matrix, double preEmphasis, double dynamicCompression) {
+		final int numFrames = matrix.getNx();
+		final int numBins = matrix.getNy();
+		final double[] preemphasisFactor = new double[numBins];
+		for(int ifreq = 0; ifreq < numBins; ifreq++) {
+			preemphasisFactor[ifreq] = (preEmphasis / NUMln2) * Math.log(ifreq * matrix.getDy() / 1000.0);
+		}
+
+		final float[] values = new float[numFrames * numBins];
+		final double[] frame = new double[numBins];
+		double maximum = 0.0;
+		for(int itime = 0; itime < numFrames; itime++) {
+			final int offset = itime * numBins;
+			double frameMaximum = 0.0;
+			for(int ifreq = 0; ifreq < numBins; ifreq++) {
+				frame[ifreq] = (10.0/NUMln10) * Math.log((matrix.getZ(itime, ifreq) + 1e-30) / 4.0e-10) + preemphasisFactor[ifreq];
+				if(frame[ifreq] > frameMaximum) frameMaximum = frame[ifreq];
+			}
+			if(frameMaximum > maximum) maximum = frameMaximum;
+
+			final double dynamicFactor = -dynamicCompression * frameMaximum;
+			for(int ifreq = 0; ifreq < numBins; ifreq++) {
+				values[offset + ifreq] = (float)(frame[ifreq] + dynamicFactor);
+			}
+		}
+		return values;
+	}
+
+	/*
+	 * Previous implementation of SpectrogramPainter colouring
+	 */
+	private static void legacyColourise(float[] values, int numFrames, int numBins, double dynamicOffset,
+			double maximum, int[] colors, int[] pixels) {
+		final double minIntensity = maximum - DYNAMIC_RANGE;
+		final int maxColorIdx = colors.length - 1;
+		final double scaleFactor = (colors.length / DYNAMIC_RANGE);
+		for (int i = 0; i < numFrames; i++) {
+			final int offset = i * numBins;
+			for (int j = 0; j < numBins; j++) {
+				double dataVal = values[offset + j] + dynamicOffset;
+				if(dataVal < minIntensity)
+					dataVal = minIntensity;
+				if(dataVal > maximum)
+					dataVal = maximum;
+				int colorIdx = (int)Math.round( (dataVal - minIntensity) * scaleFactor);
+				if(colorIdx > maxColorIdx)
+					colorIdx = maxColorIdx;
+				pixels[(numBins - 1 - j) * numFrames + i] = colors[colorIdx];
+			}
+		}
+	}
+
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat;
+
+import ca.hedlund.jpraat.binding.sys.*;
+import ca.hedlund.jpraat.exceptions.PraatException;
+import ca.phon.project.Project;
+import ca.phon.util.PrefHelper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.*;
+import java.util.*;
+import java.util.logging.*;
+
+/**
+ * Project level on-disk cache of computed analyses (spectrograms,
+ * pitch, formants, intensity.)  Entries are stored in Praat's binary
+ * format under <code>__res/analysis-cache</code> and keyed by
+ * audio file identity (path, size, modification time), segment
+ * bounds, analysis type and a settings fingerprint.
+ *
+ * The cache is bounded in size; least recently used entries are
+ * removed when the limit is exceeded.  The total size of entries is
+ * kept in memory, the cache folder is only listed when it is first
+ * used and when the limit is exceeded.
+ *
+ */
+public class AnalysisCache {
+
+	private final static Logger LOGGER = Logger.getLogger(AnalysisCache.class.getName());
+
+	public final static String CACHE_FOLDER = "analysis-cache";
+
+	private final static String CACHE_EXT = ".praat";
+
+	/**
+	 * Enable/disable analysis cache
+	 */
+	public final static String ENABLED_PROP = AnalysisCache.class.getName() + ".enabled";
+	public final static boolean DEFAULT_ENABLED = true;
+
+	/**
+	 * Maximum size of cache in megabytes
+	 */
+	public final static String MAX_SIZE_PROP = AnalysisCache.class.getName() + ".maxSize";
+	public final static int DEFAULT_MAX_SIZE = 512;
+
+	private final static Map<File, AnalysisCache> caches = new HashMap<>();
+
+	/**
+	 * Return the analysis cache for the given project.
+	 *
+	 * @param project
+	 * @return cache or <code>null</code> if caching is disabled
+	 */
+	public synchronized static AnalysisCache getCache(Project project) {
+		if(project == null || !PrefHelper.getBoolean(ENABLED_PROP, DEFAULT_ENABLED)) return null;
+
+		final File cacheFolder = new File(project.getResourceLocation(), CACHE_FOLDER);
+		return caches.computeIfAbsent(cacheFolder,
+				(folder) -> new AnalysisCache(folder, PrefHelper.getInt(MAX_SIZE_PROP, DEFAULT_MAX_SIZE) * 1024L * 1024L));
+	}
+
+	private final File cacheFolder;
+
+	private final long maxSize;
+
+	/* total size of entries in bytes, -1 until the cache folder has been read */
+	private long totalSize = -1L;
+
+	/**
+	 * @param cacheFolder
+	 * @param maxSize maximum size in bytes
+	 */
+	public AnalysisCache(File cacheFolder, long maxSize) {
+		super();
+		this.cacheFolder = cacheFolder;
+		this.maxSize = maxSize;
+	}
+
+	public File getCacheFolder() {
+		return cacheFolder;
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Create a cache key.
+	 *
+	 * @param audioFile
+	 * @param startTime segment start time in seconds
+	 * @param endTime segment end time in seconds
+	 * @param analysis name of analysis (e.g., 'Spectrogram')
+	 * @param fingerprint settings fingerprint
+	 *
+	 * @return cache key
+	 */
+	public String createKey(File audioFile, double startTime, double endTime, String analysis, String fingerprint) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(audioFile.getAbsolutePath());
+		sb.append('|').append(audioFile.length());
+		sb.append('|').append(audioFile.lastModified());
+		sb.append('|').append(startTime);
+		sb.append('|').append(endTime);
+		sb.append('|').append(analysis);
+		sb.append('|').append(fingerprint);
+
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			final byte[] hash = digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+			final StringBuilder keyBuilder = new StringBuilder(analysis).append('-');
+			for(byte b:hash) {
+				keyBuilder.append(String.format("%02x", b));
+			}
+			return keyBuilder.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-1 is required to be available on all platforms
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private File cacheFile(String key) {
+		return new File(cacheFolder, key + CACHE_EXT);
+	}
+
+	/**
+	 * Load cached data.
+	 *
+	 * @param key
+	 * @param type
+	 * @return cached data or <code>null</code> if not available.  The caller
+	 *  owns the returned object.
+	 */
+	public <T extends Daata> T load(String key, Class<T> type) {
+		final File file = cacheFile(key);
+		if(!file.exists()) return null;
+
+		try {
+			final T retVal = Daata.readFromFile(type, MelderFile.fromPath(file.getAbsolutePath()));
+			// update access time for LRU eviction
+			file.setLastModified(System.currentTimeMillis());
+			return retVal;
+		} catch (PraatException e) {
+			LOGGER.log(Level.WARNING, e.getLocalizedMessage(), e);
+			// remove corrupt entry
+			final long len = file.length();
+			if(file.delete()) entryRemoved(len);
+		}
+		return null;
+	}
+
+	/**
+	 * Store data in cache.  Data is written to a temporary file first
+	 * so that a partially written entry is never read.
+	 *
+	 * @param key
+	 * @param data
+	 */
+	public void store(String key, Daata data) {
+		if(data == null) return;
+		if(!cacheFolder.exists() && !cacheFolder.mkdirs()) {
+			LOGGER.warning("Unable to create analysis cache folder " + cacheFolder.getAbsolutePath());
+			return;
+		}
+
+		final File file = cacheFile(key);
+		final File tmpFile = new File(cacheFolder, key + "-" + Thread.currentThread().getId() + ".tmp");
+		final long oldLength;
+		try {
+			data.writeToBinaryFile(MelderFile.fromPath(tmpFile.getAbsolutePath()));
+			oldLength = (file.exists() ? file.length() : 0L);
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (PraatException | IOException e) {
+			LOGGER.log(Level.WARNING, e.getLocalizedMessage(), e);
+			tmpFile.delete();
+			return;
+		}
+
+		entryStored(file.length() - oldLength);
+	}
+
+	private synchronized void entryStored(long sizeDelta) {
+		if(totalSize < 0L) {
+			// first use, size read from folder includes new entry
+			totalSize = readTotalSize();
+		} else {
+			totalSize += sizeDelta;
+		}
+		if(totalSize > maxSize) evict();
+	}
+
+	private synchronized void entryRemoved(long size) {
+		if(totalSize >= 0L) totalSize = Math.max(0L, totalSize - size);
+	}
+
+	private long readTotalSize() {
+		final File[] files = cacheFolder.listFiles( (f) -> f.getName().endsWith(CACHE_EXT) );
+		long retVal = 0L;
+		if(files != null) {
+			for(File f:files) retVal += f.length();
+		}
+		return retVal;
+	}
+
+	/**
+	 * @return total size of cache entries in bytes
+	 */
+	public synchronized long getTotalSize() {
+		if(totalSize < 0L) totalSize = readTotalSize();
+		return totalSize;
+	}
+
+	/**
+	 * Remove least recently used entries until cache size is below limit.
+	 * The total size is re-read from the cache folder.
+	 */
+	public synchronized void evict() {
+		final File[] files = cacheFolder.listFiles( (f) -> f.getName().endsWith(CACHE_EXT) );
+		if(files == null) {
+			totalSize = 0L;
+			return;
+		}
+
+		totalSize = 0L;
+		for(File f:files) totalSize += f.length();
+		if(totalSize <= maxSize) return;
+
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		for(File f:files) {
+			if(totalSize <= maxSize) break;
+			final long len = f.length();
+			if(f.delete()) {
+				totalSize -= len;
+			}
+		}
+	}
+
+	/**
+	 * Remove all entries from the cache.
+	 */
+	public synchronized void clear() {
+		final File[] files = cacheFolder.listFiles( (f) -> f.getName().endsWith(CACHE_EXT) );
+		totalSize = 0L;
+		if(files == null) return;
+		for(File f:files) {
+			final long len = f.length();
+			if(!f.delete()) totalSize += len;
+		}
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Publication point for a single analysis result.  Loaders publish
+ * new data with a single atomic swap; readers such as paint methods
+ * {@link #acquire()} the current {@link AnalysisSnapshot} without
+ * blocking.  Replaced data is released once no reader is using it.
+ *
+ * @param <T>
+ */
+public final class AnalysisData<T> {
+
+	private final AtomicReference<AnalysisSnapshot<T>> snapshotRef = new AtomicReference<>();
+
+	/*
+	 * Generation of the most recent publish/clear.  Only modified while
+	 * holding this object's monitor.
+	 */
+	private long generation = Long.MIN_VALUE;
+
+	/**
+	 * Acquire the current snapshot.  The caller must close the returned snapshot.
+	 *
+	 * @return current snapshot or <code>null</code> if no data is available
+	 */
+	public AnalysisSnapshot<T> acquire() {
+		for(;;) {
+			final AnalysisSnapshot<T> snapshot = snapshotRef.get();
+			if(snapshot == null) return null;
+			if(snapshot.tryRetain()) return snapshot;
+			// snapshot was replaced and released, try again
+		}
+	}
+
+	/**
+	 * Acquire the current snapshot or, if no data is published, load data
+	 * into a private snapshot which is released when closed.
+	 *
+	 * @param loader
+	 * @return snapshot or <code>null</code> if no data is available
+	 */
+	public AnalysisSnapshot<T> acquireOrLoad(Supplier<T> loader) {
+		final AnalysisSnapshot<T> snapshot = acquire();
+		if(snapshot != null) return snapshot;
+
+		return AnalysisSnapshot.of(loader.get());
+	}
+
+	/**
+	 * Acquire the current snapshot if it was published with the given key.
+	 * The caller must close the returned snapshot.
+	 *
+	 * @param key
+	 * @return current snapshot or <code>null</code> if no data is available
+	 *  for key
+	 */
+	public AnalysisSnapshot<T> acquire(String key) {
+		final AnalysisSnapshot<T> snapshot = acquire();
+		if(snapshot == null) return null;
+		if(key == null || !key.equals(snapshot.getKey())) {
+			snapshot.close();
+			return null;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * @return key of currently published data or <code>null</code>
+	 */
+	public String getKey() {
+		final AnalysisSnapshot<T> snapshot = snapshotRef.get();
+		return (snapshot != null ? snapshot.getKey() : null);
+	}
+
+	/**
+	 * @return <code>true</code> if data is currently published
+	 */
+	public boolean isAvailable() {
+		return snapshotRef.get() != null;
+	}
+
+	/**
+	 * Publish data for the given load generation.  Data is rejected if a newer
+	 * generation has already been published or cleared, in which case ownership
+	 * remains with the caller.
+	 *
+	 * @param generation
+	 * @param data
+	 * @return <code>true</code> if data was published
+	 */
+	public boolean publish(long generation, T data) {
+		return publish(generation, data, null);
+	}
+
+	/**
+	 * Publish data for the given load generation.  Data is rejected if a newer
+	 * generation has already been published or cleared, in which case ownership
+	 * remains with the caller.
+	 *
+	 * @param generation
+	 * @param data
+	 * @param key identifies the segment and settings data was computed for
+	 * @return <code>true</code> if data was published
+	 */
+	public synchronized boolean publish(long generation, T data, String key) {
+		if(generation < this.generation) return false;
+		this.generation = generation;
+
+		final AnalysisSnapshot<T> snapshot = (data != null ? new AnalysisSnapshot<>(data, generation, key) : null);
+		final AnalysisSnapshot<T> oldSnapshot = snapshotRef.getAndSet(snapshot);
+		if(oldSnapshot != null) {
+			oldSnapshot.close();
+		}
+		return true;
+	}
+
+	/**
+	 * Remove published data for the given generation.
+	 *
+	 * @param generation
+	 */
+	public synchronized void clear(long generation) {
+		publish(Math.max(generation, this.generation), null);
+	}
+
+}
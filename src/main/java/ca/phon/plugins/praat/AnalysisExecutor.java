@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat;
+
+import ca.phon.util.PrefHelper;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.*;
+
+/**
+ * Shared, bounded executor used for acoustic analyses.  Independent
+ * analyses (spectrogram, formants, pitch, intensity) are run in parallel
+ * on a fixed number of daemon threads.  Speculative work (e.g., prefetching)
+ * is run on a separate low priority thread so that it never delays
+ * analyses requested by the user.  Task timings are logged at
+ * level {@link Level#FINE}.
+ *
+ */
+public final class AnalysisExecutor {
+
+	private final static Logger LOGGER = Logger.getLogger(AnalysisExecutor.class.getName());
+
+	/**
+	 * Maximum number of analysis threads.
+	 */
+	public final static String MAX_THREADS_PROP = AnalysisExecutor.class.getName() + ".maxThreads";
+	public final static int DEFAULT_MAX_THREADS =
+			Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+	private static AnalysisExecutor instance;
+
+	public synchronized static AnalysisExecutor getInstance() {
+		if(instance == null) {
+			instance = new AnalysisExecutor(PrefHelper.getInt(MAX_THREADS_PROP, DEFAULT_MAX_THREADS));
+		}
+		return instance;
+	}
+
+	private final ThreadPoolExecutor executor;
+
+	private final ThreadPoolExecutor backgroundExecutor;
+
+	private AnalysisExecutor(int maxThreads) {
+		super();
+
+		final int numThreads = Math.max(1, maxThreads);
+		final AtomicInteger threadNum = new AtomicInteger(0);
+		final ThreadFactory threadFactory = (r) -> {
+			final Thread thread = new Thread(r, AnalysisExecutor.class.getName() + "-" + threadNum.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		executor = new ThreadPoolExecutor(numThreads, numThreads, 30L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+
+		final ThreadFactory backgroundThreadFactory = (r) -> {
+			final Thread thread = new Thread(r, AnalysisExecutor.class.getName() + "-background");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		};
+		backgroundExecutor = new ThreadPoolExecutor(1, 1, 30L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), backgroundThreadFactory);
+		backgroundExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	public int getMaxThreads() {
+		return executor.getMaximumPoolSize();
+	}
+
+	/**
+	 * Submit an analysis task.
+	 *
+	 * @param name used when reporting task timing
+	 * @param task
+	 * @return future which completes when the task has finished
+	 */
+	public CompletableFuture<Void> submit(String name, Runnable task) {
+		return submit(name, task, executor);
+	}
+
+	/**
+	 * Submit a low priority task.  Background tasks are run one at a time
+	 * on a low priority thread.  Cancelling the returned future before the
+	 * task has started prevents the task from running.
+	 *
+	 * @param name used when reporting task timing
+	 * @param task
+	 * @return future which completes when the task has finished
+	 */
+	public CompletableFuture<Void> submitBackground(String name, Runnable task) {
+		return submit(name, task, backgroundExecutor);
+	}
+
+	private CompletableFuture<Void> submit(String name, Runnable task, Executor taskExecutor) {
+		return CompletableFuture.runAsync(() -> {
+			final long startTime = System.nanoTime();
+			try {
+				task.run();
+			} finally {
+				if(LOGGER.isLoggable(Level.FINE)) {
+					final double elapsedMs = (System.nanoTime() - startTime) / 1.0e6;
+					LOGGER.fine(String.format("%s finished in %.1f ms", name, elapsedMs));
+				}
+			}
+		}, taskExecutor);
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat;
+
+import ca.phon.app.log.LogUtil;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable, reference counted view of published analysis data.
+ * A snapshot is obtained from {@link AnalysisData#acquire()} and must
+ * be closed by the reader when finished.  The underlying data is
+ * released once the snapshot has been replaced and all readers have
+ * closed it.
+ *
+ * @param <T>
+ */
+public final class AnalysisSnapshot<T> implements AutoCloseable {
+
+	private final T data;
+
+	private final long generation;
+
+	/* identifies segment and settings of data, may be null */
+	private final String key;
+
+	/*
+	 * One reference is held by the publishing AnalysisData until the
+	 * snapshot is replaced, plus one for each active reader.
+	 */
+	private final AtomicInteger refCount = new AtomicInteger(1);
+
+	AnalysisSnapshot(T data, long generation) {
+		this(data, generation, null);
+	}
+
+	AnalysisSnapshot(T data, long generation, String key) {
+		super();
+		this.data = data;
+		this.generation = generation;
+		this.key = key;
+		NativeMemoryRegistry.getInstance().track(data);
+	}
+
+	/**
+	 * Create a snapshot for data which is not published.  The data is
+	 * released when the returned snapshot is closed.
+	 *
+	 * @param data
+	 * @return snapshot or <code>null</code> if data is <code>null</code>
+	 */
+	public static <T> AnalysisSnapshot<T> of(T data) {
+		return (data != null ? new AnalysisSnapshot<>(data, Long.MIN_VALUE) : null);
+	}
+
+	public T get() {
+		return data;
+	}
+
+	/**
+	 * @return load generation the data was published for
+	 */
+	public long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * @return key identifying the segment and settings the data was
+	 *  computed for, or <code>null</code> if unknown
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Add a reference to this snapshot unless it has already been released.
+	 *
+	 * @return <code>true</code> if a reference was added
+	 */
+	boolean tryRetain() {
+		for(;;) {
+			final int count = refCount.get();
+			if(count <= 0) return false;
+			if(refCount.compareAndSet(count, count + 1)) return true;
+		}
+	}
+
+	@Override
+	public void close() {
+		if(refCount.decrementAndGet() == 0) {
+			dispose(data);
+		}
+	}
+
+	/**
+	 * Release native data if possible.  Data is no longer
+	 * tracked by the {@link NativeMemoryRegistry}.
+	 *
+	 * @param data
+	 */
+	public static void dispose(Object data) {
+		NativeMemoryRegistry.getInstance().untrack(data);
+		NativeLeakDetector.getInstance().released(data);
+		if(data instanceof AutoCloseable) {
+			try {
+				((AutoCloseable)data).close();
+			} catch (Exception e) {
+				LogUtil.severe(e);
+			}
+		}
+	}
+
+}
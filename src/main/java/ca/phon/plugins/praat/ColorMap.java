@@ -114,6 +114,19 @@ import java.util.Arrays;
          return pixel;
      }
      
+     /**
+      * Lookup table of packed RGB values for all colours in this map.
+      * 
+      * @return array of length {@link #size()}
+      */
+     public int[] getColors() {
+    	 final int[] colors = new int[size];
+    	 for(int i = 0; i < size; i++) {
+    		 colors[i] = getColor(i);
+    	 }
+    	 return colors;
+     }
+     
      public int size() {
     	 return size;
      }
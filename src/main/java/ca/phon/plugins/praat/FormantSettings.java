@@ -181,6 +181,22 @@ public class FormantSettings {
 		this.dotSize = dotSize;
 	}
 
+	/**
+	 * Canonical description of the settings which affect the computed
+	 * formant track.  Display and listing settings are not included.
+	 * 
+	 * @return settings fingerprint
+	 */
+	public String getFingerprint() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("timeStep=").append(getTimeStep());
+		sb.append(";numFormants=").append(getNumFormants());
+		sb.append(";maxFrequency=").append(getMaxFrequency());
+		sb.append(";windowLength=").append(getWindowLength());
+		sb.append(";preEmphasis=").append(getPreEmphasis());
+		return sb.toString();
+	}
+	
 	public void loadDefaults() {
 		setNumFormants(getDefaultNumFormants());
 		setMaxFrequency(getDefaultMaxFrequency());
@@ -86,6 +86,16 @@ public class IntensitySettings {
 		return this.subtractMean;
 	}
 	
+	/**
+	 * Canonical description of the settings which affect the computed
+	 * intensity contour.  View range and averaging are not included.
+	 * 
+	 * @return settings fingerprint
+	 */
+	public String getFingerprint() {
+		return "subtractMean=" + getSubtractMean();
+	}
+	
 	public void saveAsDefaults() {
 		final Preferences prefs = PrefHelper.getUserPreferences();
 		prefs.putDouble(VIEW_RANGE_MIN_PROP, getViewRangeMin());
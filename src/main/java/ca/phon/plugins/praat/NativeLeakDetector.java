@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat;
+
+import ca.phon.util.PrefHelper;
+
+import java.lang.ref.*;
+import java.util.*;
+import java.util.logging.*;
+
+/**
+ * Debug instrumentation for the lifecycle of Praat objects allocated by
+ * the plugin.  When enabled, owners report allocation using
+ * {@link #allocated(Object)} and release using {@link #released(Object)}.
+ * The creation stack trace of each allocation is recorded; objects which
+ * become unreachable without being released are reported as leaks
+ * along with their creation stack trace.  Counts of live and leaked
+ * objects are kept per allocation site.
+ *
+ * Detection is disabled by default and is enabled by setting the
+ * {@link #ENABLED_PROP} preference (or system property) to <code>true</code>.
+ * When disabled all methods are no-ops.
+ *
+ */
+public final class NativeLeakDetector {
+
+	private final static Logger LOGGER = Logger.getLogger(NativeLeakDetector.class.getName());
+
+	/**
+	 * Enable leak detection
+	 */
+	public final static String ENABLED_PROP = NativeLeakDetector.class.getName() + ".enabled";
+	public final static boolean DEFAULT_ENABLED = false;
+
+	private static NativeLeakDetector instance;
+
+	public synchronized static NativeLeakDetector getInstance() {
+		if(instance == null) {
+			instance = new NativeLeakDetector(PrefHelper.getBoolean(ENABLED_PROP, DEFAULT_ENABLED));
+		}
+		return instance;
+	}
+
+	private final boolean enabled;
+
+	private final Cleaner cleaner;
+
+	/* live allocations by identity hash code */
+	private final Map<Integer, List<Allocation>> allocations = new HashMap<>();
+
+	private final Map<String, Integer> liveCounts = new TreeMap<>();
+
+	private final Map<String, Integer> leakCounts = new TreeMap<>();
+
+	NativeLeakDetector(boolean enabled) {
+		super();
+		this.enabled = enabled;
+		this.cleaner = (enabled ? Cleaner.create() : null);
+		if(enabled) {
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> LOGGER.info(report()), "Praat leak report"));
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Record allocation of a Praat object.  The allocation site is the
+	 * calling method.
+	 *
+	 * @param thing
+	 * @return thing
+	 */
+	public <T> T allocated(T thing) {
+		if(!enabled || thing == null) return thing;
+
+		final Throwable trace = new Throwable("Praat object allocated");
+		final StackTraceElement[] stack = trace.getStackTrace();
+		final String site = (stack.length > 1 ? stack[1].getClassName() + "." + stack[1].getMethodName()
+				+ ":" + stack[1].getLineNumber() : "unknown");
+
+		final Allocation allocation = new Allocation(thing, site, trace);
+		synchronized(this) {
+			allocations.computeIfAbsent(allocation.hash, (k) -> new ArrayList<>()).add(allocation);
+			liveCounts.merge(site, 1, Integer::sum);
+		}
+		allocation.cleanable = cleaner.register(thing, allocation);
+		return thing;
+	}
+
+	/**
+	 * Record release of a Praat object.  Should be called before
+	 * the object is closed.  Objects which were not recorded
+	 * using {@link #allocated(Object)} are ignored.
+	 *
+	 * @param thing
+	 */
+	public void released(Object thing) {
+		if(!enabled || thing == null) return;
+
+		Allocation allocation = null;
+		synchronized(this) {
+			final List<Allocation> candidates = allocations.get(System.identityHashCode(thing));
+			if(candidates == null) return;
+			for(Allocation candidate:candidates) {
+				if(candidate.ref.get() == thing) {
+					allocation = candidate;
+					break;
+				}
+			}
+		}
+		if(allocation != null) {
+			allocation.released = true;
+			if(allocation.cleanable != null) allocation.cleanable.clean();
+		}
+	}
+
+	private synchronized void remove(Allocation allocation) {
+		final List<Allocation> candidates = allocations.get(allocation.hash);
+		if(candidates == null || !candidates.remove(allocation)) return;
+		if(candidates.isEmpty()) allocations.remove(allocation.hash);
+		liveCounts.computeIfPresent(allocation.site, (k, v) -> (v > 1 ? v - 1 : null));
+		if(!allocation.released) {
+			leakCounts.merge(allocation.site, 1, Integer::sum);
+		}
+	}
+
+	/**
+	 * @return number of allocated objects which have not been released, by allocation site
+	 */
+	public synchronized Map<String, Integer> getLiveCounts() {
+		return new TreeMap<>(liveCounts);
+	}
+
+	/**
+	 * @return number of objects which became unreachable without being released, by allocation site
+	 */
+	public synchronized Map<String, Integer> getLeakCounts() {
+		return new TreeMap<>(leakCounts);
+	}
+
+	/**
+	 * @return summary of live and leaked objects by allocation site
+	 */
+	public synchronized String report() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("Praat objects live by allocation site:");
+		liveCounts.forEach( (site, count) -> sb.append("\n\t").append(site).append(": ").append(count) );
+		sb.append("\nPraat objects leaked by allocation site:");
+		leakCounts.forEach( (site, count) -> sb.append("\n\t").append(site).append(": ").append(count) );
+		return sb.toString();
+	}
+
+	/**
+	 * Cleaning action for an allocation.  Must not reference the
+	 * allocated object strongly.
+	 */
+	private final class Allocation implements Runnable {
+
+		private final WeakReference<Object> ref;
+
+		private final int hash;
+
+		private final String site;
+
+		private final Throwable trace;
+
+		private volatile boolean released = false;
+
+		private volatile Cleaner.Cleanable cleanable;
+
+		public Allocation(Object thing, String site, Throwable trace) {
+			super();
+			this.ref = new WeakReference<>(thing);
+			this.hash = System.identityHashCode(thing);
+			this.site = site;
+			this.trace = trace;
+		}
+
+		@Override
+		public void run() {
+			remove(this);
+			if(!released) {
+				LOGGER.log(Level.WARNING,
+						String.format("Praat object allocated at %s was not released (%d leaked from this site)",
+								site, getLeakCounts().getOrDefault(site, 0)), trace);
+			}
+		}
+
+	}
+
+}
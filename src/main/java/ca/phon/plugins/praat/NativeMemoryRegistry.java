@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat;
+
+import ca.hedlund.jpraat.binding.fon.*;
+import ca.hedlund.jpraat.binding.sys.Thing;
+import ca.phon.util.PrefHelper;
+
+import java.util.*;
+import java.util.logging.*;
+
+/**
+ * Registry of live Praat objects held by the plugin.  Praat objects
+ * live in native memory which is not visible to the JVM heap; the
+ * registry keeps an approximate size for each tracked object and
+ * reports current usage.
+ *
+ * Cached objects which may be re-computed (e.g., prefetched analyses)
+ * are registered as evictable.  When usage exceeds the configured
+ * budget, least recently used evictable objects are evicted until
+ * usage is within budget.  Objects in use (e.g., displayed analyses,
+ * TextGrids) are tracked but never evicted.
+ *
+ * Objects are identified by reference.  Owners must call
+ * {@link #untrack(Object)} when an object is released;
+ * {@link AnalysisSnapshot#dispose(Object)} does this automatically.
+ *
+ */
+public final class NativeMemoryRegistry {
+
+	private final static Logger LOGGER = Logger.getLogger(NativeMemoryRegistry.class.getName());
+
+	/**
+	 * Native memory budget in megabytes
+	 */
+	public final static String MAX_NATIVE_MEMORY_PROP = NativeMemoryRegistry.class.getName() + ".maxNativeMemory";
+	public final static int DEFAULT_MAX_NATIVE_MEMORY = 512;
+
+	/* Size used for Praat objects of unknown type */
+	private final static long DEFAULT_SIZE = 4 * 1024L;
+
+	/* Approximate size of a pitch frame (15 candidates) */
+	private final static long PITCH_FRAME_SIZE = 15 * 16 + 24;
+
+	/* Approximate size of a formant frame (5 formants) */
+	private final static long FORMANT_FRAME_SIZE = 5 * 16 + 16;
+
+	/* Approximate size of a TextGrid interval or point including label */
+	private final static long TEXTGRID_ITEM_SIZE = 96;
+
+	/* Length of LongSound buffer in seconds */
+	private final static double LONG_SOUND_BUFFER_LENGTH = 60.0;
+
+	private static NativeMemoryRegistry instance;
+
+	public synchronized static NativeMemoryRegistry getInstance() {
+		if(instance == null) {
+			instance = new NativeMemoryRegistry(PrefHelper.getInt(MAX_NATIVE_MEMORY_PROP, DEFAULT_MAX_NATIVE_MEMORY) * 1024L * 1024L);
+		}
+		return instance;
+	}
+
+	private final long budget;
+
+	/* access ordered, least recently used first */
+	private final Map<IdentityKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long usage = 0L;
+
+	NativeMemoryRegistry(long budget) {
+		super();
+		this.budget = budget;
+	}
+
+	/**
+	 * @return native memory budget in bytes
+	 */
+	public long getBudget() {
+		return budget;
+	}
+
+	/**
+	 * @return approximate native memory used by tracked objects in bytes
+	 */
+	public synchronized long getUsage() {
+		return usage;
+	}
+
+	/**
+	 * @return number of tracked objects
+	 */
+	public synchronized int getTrackedCount() {
+		return entries.size();
+	}
+
+	/**
+	 * Approximate native memory used by tracked objects, by type.
+	 *
+	 * @return map of simple class name to usage in bytes
+	 */
+	public synchronized Map<String, Long> getUsageByType() {
+		final Map<String, Long> retVal = new TreeMap<>();
+		for(Map.Entry<IdentityKey, Entry> entry:entries.entrySet()) {
+			retVal.merge(entry.getKey().ref.getClass().getSimpleName(), entry.getValue().size, Long::sum);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Track a Praat object which is in use.  Objects which are not
+	 * Praat objects are ignored.  If the object is already tracked
+	 * it is no longer evictable.
+	 *
+	 * @param thing
+	 */
+	public void track(Object thing) {
+		if(!(thing instanceof Thing)) return;
+		track(thing, estimateSize(thing), null);
+	}
+
+	/**
+	 * Track a Praat object which may be evicted when the budget is exceeded.
+	 * The evictor must remove the object from its owner and dispose it.
+	 *
+	 * @param thing
+	 * @param evictor
+	 */
+	public void trackEvictable(Object thing, Runnable evictor) {
+		if(!(thing instanceof Thing)) return;
+		track(thing, estimateSize(thing), evictor);
+	}
+
+	private void track(Object thing, long size, Runnable evictor) {
+		synchronized(this) {
+			final Entry oldEntry = entries.put(new IdentityKey(thing), new Entry(size, evictor));
+			if(oldEntry != null) usage -= oldEntry.size;
+			usage += size;
+		}
+		enforceBudget();
+	}
+
+	/**
+	 * Mark object as recently used.
+	 *
+	 * @param thing
+	 */
+	public synchronized void touch(Object thing) {
+		if(thing != null) entries.get(new IdentityKey(thing));
+	}
+
+	/**
+	 * Stop tracking object.  Does not release the object.
+	 *
+	 * @param thing
+	 */
+	public synchronized void untrack(Object thing) {
+		if(thing == null) return;
+		final Entry entry = entries.remove(new IdentityKey(thing));
+		if(entry != null) usage -= entry.size;
+	}
+
+	/**
+	 * Evict least recently used evictable objects until usage is within
+	 * budget or no evictable objects remain.  Evictors are executed outside
+	 * of this object's monitor.
+	 */
+	public void enforceBudget() {
+		for(;;) {
+			Runnable evictor = null;
+			synchronized(this) {
+				if(usage <= budget) return;
+				for(Iterator<Map.Entry<IdentityKey, Entry>> itr = entries.entrySet().iterator(); itr.hasNext(); ) {
+					final Map.Entry<IdentityKey, Entry> entry = itr.next();
+					if(entry.getValue().evictor != null) {
+						evictor = entry.getValue().evictor;
+						usage -= entry.getValue().size;
+						itr.remove();
+						if(LOGGER.isLoggable(Level.FINE)) {
+							LOGGER.fine(String.format("Evicting %s (%d bytes), native memory usage %d/%d bytes",
+									entry.getKey().ref.getClass().getSimpleName(), entry.getValue().size, usage, budget));
+						}
+						break;
+					}
+				}
+				if(evictor == null) return;
+			}
+			try {
+				evictor.run();
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, e.getLocalizedMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * Approximate native size of a Praat object.
+	 *
+	 * @param thing
+	 * @return size in bytes
+	 */
+	public static long estimateSize(Object thing) {
+		try {
+			if(thing instanceof Pitch) {
+				return ((Pitch)thing).getNx() * PITCH_FRAME_SIZE;
+			} else if(thing instanceof Formant) {
+				return ((Formant)thing).getNx() * FORMANT_FRAME_SIZE;
+			} else if(thing instanceof Intensity) {
+				return ((Intensity)thing).getNx() * 8L;
+			} else if(thing instanceof Spectrogram) {
+				final Spectrogram spectrogram = (Spectrogram)thing;
+				return spectrogram.getNx() * spectrogram.getNy() * 8L;
+			} else if(thing instanceof Sound) {
+				final Sound sound = (Sound)thing;
+				return sound.getNx() * sound.getNy() * 8L;
+			} else if(thing instanceof LongSound) {
+				final LongSound longSound = (LongSound)thing;
+				final long bufferSamples = (long)(LONG_SOUND_BUFFER_LENGTH / longSound.getDx());
+				return Math.min(longSound.getNx(), bufferSamples) * 2L;
+			} else if(thing instanceof TextGrid) {
+				final TextGrid textGrid = (TextGrid)thing;
+				long numItems = 0L;
+				for(long i = 1; i <= textGrid.numberOfTiers(); i++) {
+					final Function tier = textGrid.tier(i);
+					if(tier instanceof IntervalTier) {
+						numItems += ((IntervalTier)tier).numberOfIntervals();
+					} else if(tier instanceof TextTier) {
+						numItems += ((TextTier)tier).numberOfPoints();
+					}
+				}
+				return numItems * TEXTGRID_ITEM_SIZE;
+			}
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.FINE, e.getLocalizedMessage(), e);
+		}
+		return DEFAULT_SIZE;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%d objects, %.1f/%.1f MB", entries.size(),
+				usage / (1024.0 * 1024.0), budget / (1024.0 * 1024.0));
+	}
+
+	/**
+	 * Objects are tracked by reference.
+	 */
+	private final static class IdentityKey {
+
+		private final Object ref;
+
+		public IdentityKey(Object ref) {
+			super();
+			this.ref = ref;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (obj instanceof IdentityKey) && ((IdentityKey)obj).ref == ref;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(ref);
+		}
+
+	}
+
+	private final static class Entry {
+
+		private final long size;
+
+		private final Runnable evictor;
+
+		public Entry(long size, Runnable evictor) {
+			super();
+			this.size = size;
+			this.evictor = evictor;
+		}
+
+	}
+
+}
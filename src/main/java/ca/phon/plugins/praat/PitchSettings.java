@@ -232,6 +232,28 @@ public class PitchSettings {
 		this.voicedUnvoicedCost = voicedUnvoicedCost;
 	}
 
+	/**
+	 * Canonical description of the settings which affect the computed
+	 * pitch track.  Display-only settings are not included.
+	 * 
+	 * @return settings fingerprint
+	 */
+	public String getFingerprint() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("timeStep=").append(getTimeStep());
+		sb.append(";rangeStart=").append(getRangeStart());
+		sb.append(";rangeEnd=").append(getRangeEnd());
+		sb.append(";autoCorrelate=").append(isAutoCorrelate());
+		sb.append(";veryAccurate=").append(isVeryAccurate());
+		sb.append(";maxCandidates=").append(getMaxCandidates());
+		sb.append(";silenceThreshold=").append(getSilenceThreshold());
+		sb.append(";voicingThreshold=").append(getVoicingThreshold());
+		sb.append(";octaveCost=").append(getOctaveCost());
+		sb.append(";octaveJumpCost=").append(getOctaveJumpCost());
+		sb.append(";voicedUnvoicedCost=").append(getVoicedUnvoicedCost());
+		return sb.toString();
+	}
+
 	public void loadDefaults() {
 		setTimeStep(getDefaultTimeStep());
 		setAutoCorrelate(getDefaultAutocorrelate());
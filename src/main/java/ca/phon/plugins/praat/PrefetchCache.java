@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat;
+
+import ca.phon.util.PrefHelper;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Bounded in-memory cache of analyses computed ahead of time (e.g.,
+ * for records neighbouring the current record.)  Entries are keyed
+ * by audio file, segment bounds, analysis type and settings fingerprint.
+ *
+ * Ownership of cached data is transferred to the cache by
+ * {@link #put(String, Object)} and back to the caller by
+ * {@link #take(String, Class)}.  Entries evicted from the cache
+ * (least recently used first) or removed by {@link #clear()}
+ * are disposed.
+ *
+ * Cached data is registered as evictable with the {@link NativeMemoryRegistry}
+ * and may be removed from the cache when the native memory budget is exceeded.
+ *
+ */
+public class PrefetchCache {
+
+	/**
+	 * Maximum number of cached analyses
+	 */
+	public final static String MAX_ENTRIES_PROP = PrefetchCache.class.getName() + ".maxEntries";
+	public final static int DEFAULT_MAX_ENTRIES = 32;
+
+	private final int maxEntries;
+
+	private final Map<String, Object> entries;
+
+	public PrefetchCache() {
+		this(PrefHelper.getInt(MAX_ENTRIES_PROP, DEFAULT_MAX_ENTRIES));
+	}
+
+	public PrefetchCache(int maxEntries) {
+		super();
+		this.maxEntries = Math.max(1, maxEntries);
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+				if(size() > PrefetchCache.this.maxEntries) {
+					AnalysisSnapshot.dispose(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+
+		};
+	}
+
+	/**
+	 * Create key for analysis.
+	 *
+	 * @param audioFile
+	 * @param startTime
+	 * @param endTime
+	 * @param analysis
+	 * @param fingerprint
+	 * @return key
+	 */
+	public static String createKey(File audioFile, double startTime, double endTime, String analysis, String fingerprint) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(audioFile.getAbsolutePath());
+		sb.append('|').append(startTime);
+		sb.append('|').append(endTime);
+		sb.append('|').append(analysis);
+		sb.append('|').append(fingerprint);
+		return sb.toString();
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Check for an entry.  An existing entry is marked as recently used,
+	 * both in this cache and in the {@link NativeMemoryRegistry}.
+	 *
+	 * @param key
+	 * @return <code>true</code> if the cache has an entry for key
+	 */
+	public synchronized boolean contains(String key) {
+		final Object data = entries.get(key);
+		if(data == null) return false;
+		NativeMemoryRegistry.getInstance().touch(data);
+		return true;
+	}
+
+	/**
+	 * Add data to cache.  If an entry already exists for key the given
+	 * data is disposed and the existing entry is marked as recently used.
+	 *
+	 * @param key
+	 * @param data
+	 */
+	public synchronized void put(String key, Object data) {
+		if(data == null) return;
+		final Object existing = entries.get(key);
+		if(existing != null) {
+			NativeMemoryRegistry.getInstance().touch(existing);
+			if(existing != data) AnalysisSnapshot.dispose(data);
+		} else {
+			entries.put(key, data);
+			NativeMemoryRegistry.getInstance().trackEvictable(data, () -> evict(key, data));
+		}
+	}
+
+	/**
+	 * Remove and dispose entry if it is still mapped to the given data.
+	 *
+	 * @param key
+	 * @param data
+	 */
+	private synchronized void evict(String key, Object data) {
+		if(entries.get(key) != data) return;
+		entries.remove(key);
+		AnalysisSnapshot.dispose(data);
+	}
+
+	/**
+	 * Remove data from the cache.  The caller becomes responsible for
+	 * disposing the returned data.
+	 *
+	 * @param key
+	 * @param type
+	 * @return cached data or <code>null</code>
+	 */
+	public synchronized <T> T take(String key, Class<T> type) {
+		final Object data = entries.get(key);
+		if(data == null || !type.isInstance(data)) return null;
+		entries.remove(key);
+		NativeMemoryRegistry.getInstance().untrack(data);
+		return type.cast(data);
+	}
+
+	/**
+	 * Remove and dispose all entries.
+	 */
+	public synchronized void clear() {
+		for(Object data:entries.values()) {
+			AnalysisSnapshot.dispose(data);
+		}
+		entries.clear();
+	}
+
+}
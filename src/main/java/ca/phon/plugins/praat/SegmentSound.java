@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat;
+
+import ca.hedlund.jpraat.binding.fon.*;
+import ca.hedlund.jpraat.binding.sys.MelderFile;
+import ca.hedlund.jpraat.exceptions.PraatException;
+import ca.phon.app.log.LogUtil;
+
+import java.io.File;
+
+/**
+ * Audio for a single segment shared by a number of analysis consumers.
+ * The {@link LongSound} is opened and the {@link Sound} part extracted
+ * on first request only.  Each consumer must {@link #retain()} the
+ * segment before use and {@link #release()} it when finished; the
+ * native sound is released with the last consumer.
+ *
+ * A segment may be created as a part of another segment, in which case
+ * its sound is cut from the sound of the source segment instead of
+ * being read from the audio file again.  The source is retained
+ * while the part is retained.
+ *
+ */
+public class SegmentSound {
+
+	private final File audioFile;
+
+	private final double startTime;
+
+	private final double endTime;
+
+	/* segment this segment is a part of, may be null */
+	private final SegmentSound source;
+
+	private Sound sound;
+
+	private int refCount = 0;
+
+	public SegmentSound(File audioFile, double startTime, double endTime) {
+		super();
+		this.audioFile = audioFile;
+		this.startTime = startTime;
+		this.endTime = endTime;
+		this.source = null;
+	}
+
+	/**
+	 * Create a part of the given segment.
+	 *
+	 * @param source
+	 * @param startTime
+	 * @param endTime
+	 */
+	public SegmentSound(SegmentSound source, double startTime, double endTime) {
+		super();
+		this.audioFile = source.getAudioFile();
+		this.startTime = startTime;
+		this.endTime = endTime;
+		this.source = source;
+	}
+
+	public File getAudioFile() {
+		return audioFile;
+	}
+
+	public double getStartTime() {
+		return startTime;
+	}
+
+	public double getEndTime() {
+		return endTime;
+	}
+
+	/**
+	 * Register a consumer of this segment.  Must be balanced by
+	 * a call to {@link #release()}.
+	 *
+	 * @return this segment
+	 */
+	public synchronized SegmentSound retain() {
+		if(++refCount == 1 && source != null)
+			source.retain();
+		return this;
+	}
+
+	/**
+	 * Return the extracted sound for this segment, loading it if necessary.
+	 * The returned object is owned by this segment and must not be closed
+	 * by the caller.
+	 *
+	 * @return sound part
+	 * @throws PraatException
+	 * @throws IllegalStateException if no consumers are registered
+	 */
+	public synchronized Sound getSound() throws PraatException {
+		if(refCount <= 0)
+			throw new IllegalStateException("Segment sound not retained");
+		if(sound == null && source != null) {
+			sound = NativeLeakDetector.getInstance().allocated(source.extractPart(startTime, endTime));
+		} else if(sound == null) {
+			final LongSound longSound = LongSound.open(MelderFile.fromPath(audioFile.getAbsolutePath()));
+			try {
+				sound = NativeLeakDetector.getInstance().allocated(longSound.extractPart(startTime, endTime, true));
+			} finally {
+				try {
+					longSound.close();
+				} catch (Exception e) {
+					LogUtil.warning(e);
+				}
+			}
+		}
+		return sound;
+	}
+
+	/**
+	 * Cut part of the sound for this segment.  The returned sound is
+	 * owned by the caller.
+	 *
+	 * @param t1
+	 * @param t2
+	 * @return sound part, times are preserved
+	 * @throws PraatException
+	 */
+	private synchronized Sound extractPart(double t1, double t2) throws PraatException {
+		return getSound().extractPart(t1, t2, kSound_windowShape.RECTANGULAR, 1.0, true);
+	}
+
+	/**
+	 * Unregister a consumer.  The native sound is released when
+	 * the last consumer has finished.
+	 */
+	public synchronized void release() {
+		if(refCount <= 0) return;
+		if(--refCount > 0) return;
+		if(sound != null) {
+			NativeLeakDetector.getInstance().released(sound);
+			try {
+				sound.close();
+			} catch (Exception e) {
+				LogUtil.severe(e);
+			}
+			sound = null;
+		}
+		if(source != null)
+			source.release();
+	}
+
+}
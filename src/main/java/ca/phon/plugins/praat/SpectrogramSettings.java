@@ -143,6 +143,23 @@ public class SpectrogramSettings {
 		this.dynamicRange = dynamicRange;
 	}
 	
+	/**
+	 * Canonical description of the settings which affect the computed
+	 * spectrogram.  Display-only settings (e.g., dynamic range) are
+	 * not included.
+	 * 
+	 * @return settings fingerprint
+	 */
+	public String getFingerprint() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("windowLength=").append(getWindowLength());
+		sb.append(";maxFrequency=").append(getMaxFrequency());
+		sb.append(";timeStep=").append(getTimeStep());
+		sb.append(";frequencyStep=").append(getFrequencyStep());
+		sb.append(";windowShape=").append(getWindowShape().name());
+		return sb.toString();
+	}
+	
 	/**
 	 * Save these settings as custom defaults.
 	 * 
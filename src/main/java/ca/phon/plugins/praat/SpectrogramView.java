@@ -46,8 +46,12 @@ import java.awt.event.*;
 import java.awt.geom.*;
 import java.io.*;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.*;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
 /**
@@ -64,8 +68,46 @@ public class SpectrogramView extends SpeechAnalysisTier {
 	public final static double DEFAULT_MAX_ANALYSIS_LENGTH = 10.0;
 	private double maxAnalysisLength = PrefHelper.getDouble(MAX_ANALYSIS_LENGTH_PROP, DEFAULT_MAX_ANALYSIS_LENGTH);
 
+	/**
+	 * Compute spectrograms of long segments as overlapping time tiles.
+	 */
+	public final static String TILED_ANALYSIS_PROP = SpectrogramView.class.getName() + ".tiledAnalysis";
+	public final static boolean DEFAULT_TILED_ANALYSIS = true;
+	private boolean tiledAnalysis = PrefHelper.getBoolean(TILED_ANALYSIS_PROP, DEFAULT_TILED_ANALYSIS);
+
+	/**
+	 * Max nominal length of spectrogram tiles in seconds.
+	 */
+	public final static String TILE_LENGTH_PROP = SpectrogramView.class.getName() + ".tileLength";
+	public final static double DEFAULT_TILE_LENGTH = 2.0;
+	private double tileLength = PrefHelper.getDouble(TILE_LENGTH_PROP, DEFAULT_TILE_LENGTH);
+
+	/**
+	 * Max analysis length in seconds when tiled analysis is enabled.
+	 */
+	public final static String MAX_TILED_ANALYSIS_LENGTH_PROP = SpectrogramView.class.getName() + ".maxTiledAnalysisLength";
+	public final static double DEFAULT_MAX_TILED_ANALYSIS_LENGTH = 300.0;
+	private double maxTiledAnalysisLength = PrefHelper.getDouble(MAX_TILED_ANALYSIS_LENGTH_PROP, DEFAULT_MAX_TILED_ANALYSIS_LENGTH);
+
 	private final ErrorBanner maxAnalysisMessage = new ErrorBanner();
 
+	/**
+	 * Number of records before and after the current record for which
+	 * analyses are computed in the background.  <code>0</code> disables
+	 * prefetching.
+	 */
+	public final static String PREFETCH_RECORDS_PROP = SpectrogramView.class.getName() + ".prefetchRecords";
+	public final static int DEFAULT_PREFETCH_RECORDS = 2;
+	private int prefetchRecords = PrefHelper.getInt(PREFETCH_RECORDS_PROP, DEFAULT_PREFETCH_RECORDS);
+
+	/* analyses computed for neighbouring records */
+	private final PrefetchCache prefetchCache = new PrefetchCache();
+
+	/* incremented to cancel pending prefetch tasks */
+	private final AtomicLong prefetchGeneration = new AtomicLong(0L);
+
+	private final List<CompletableFuture<Void>> prefetchTasks = new ArrayList<>();
+
 	/*
 	 * Spectrogram
 	 */
@@ -75,7 +117,25 @@ public class SpectrogramView extends SpeechAnalysisTier {
 
 	private SpectrogramSettings spectrogramSettings = new SpectrogramSettings();
 
-	private final SpectrogramPainter spectrogramPainter = new SpectrogramPainter(spectrogramSettings);
+	private final TiledSpectrogramPainter spectrogramPainter = new TiledSpectrogramPainter(spectrogramSettings);
+
+	/**
+	 * Paint spectrogram using bilinear interpolation
+	 */
+	public final static String INTERPOLATE_SPECTROGRAM_PROP = SpectrogramView.class.getName() + ".interpolateSpectrogram";
+	public final static boolean DEFAULT_INTERPOLATE_SPECTROGRAM = false;
+	private boolean interpolateSpectrogram = PrefHelper.getBoolean(INTERPOLATE_SPECTROGRAM_PROP, DEFAULT_INTERPOLATE_SPECTROGRAM);
+
+	/**
+	 * Compute displayed spectrogram and pitch at the resolution of the
+	 * display first, refine to the configured resolution when zooming in.
+	 */
+	public final static String ADAPTIVE_RESOLUTION_PROP = SpectrogramView.class.getName() + ".adaptiveResolution";
+	public final static boolean DEFAULT_ADAPTIVE_RESOLUTION = false;
+	private boolean adaptiveResolution = PrefHelper.getBoolean(ADAPTIVE_RESOLUTION_PROP, DEFAULT_ADAPTIVE_RESOLUTION);
+
+	/* set while exact pitch is being loaded for display */
+	private final AtomicBoolean pitchRefinePending = new AtomicBoolean(false);
 
 
 	/*
@@ -88,20 +148,20 @@ public class SpectrogramView extends SpeechAnalysisTier {
 	 */
 	private FormantSettings formantSettings = new FormantSettings();
 
-	private final AtomicReference<Spectrogram> spectrogramRef = new AtomicReference<>();
+	private final AnalysisData<TiledSpectrogram> spectrogramData = new AnalysisData<>();
 
 	public final static String SHOW_FORMANTS_PROP = SpectrogramView.class.getName() + ".showFormants";
 	private boolean showFormants =
 			PrefHelper.getBoolean(SHOW_FORMANTS_PROP, false);
 
-	private final AtomicReference<Formant> formantRef = new AtomicReference<>();
+	private final AnalysisData<Formant> formantData = new AnalysisData<>();
 
 	private FormantPainter formantPainter = new FormantPainter();
 
 	/*
 	 * Pitch
 	 */
-	private final AtomicReference<Pitch> pitchRef = new AtomicReference<>();
+	private final AnalysisData<Pitch> pitchData = new AnalysisData<>();
 
 	private PitchSettings pitchSettings = new PitchSettings();
 
@@ -111,7 +171,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 	private boolean showPitch =
 			PrefHelper.getBoolean(SHOW_PITCH_PROP, false);
 
-	private final AtomicReference<Intensity> intensityRef = new AtomicReference<>();
+	private final AnalysisData<Intensity> intensityData = new AnalysisData<>();
 
 	/*
 	 * Intensity
@@ -135,6 +195,12 @@ public class SpectrogramView extends SpeechAnalysisTier {
 
 	private transient volatile double lastStartTime = 0.0;
 	private transient volatile double lastEndTime = 0.0;
+
+	/*
+	 * Load generation, incremented each time a new segment is requested.
+	 * Data loaded for an older generation is discarded.
+	 */
+	private final AtomicLong loadGeneration = new AtomicLong(0L);
 	
 	private boolean forceLoadSpectrogram = false;
 
@@ -152,6 +218,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 
 	private void init() {
 		spectrogramPanel = new SpectrogramPanel();
+		spectrogramPainter.setRepaintCallback( () -> SwingUtilities.invokeLater(updateTask) );
 		spectrogramPanel.setBackground(Color.white);
 		spectrogramPanel.setOpaque(true);
 		if(displayHeight < 0) {
@@ -179,7 +246,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 
 		maxAnalysisMessage.setTopLabelText("<html><b>Spectrogram Not Loaded</b></htmlL>");
 		maxAnalysisMessage.setBottomLabelText(
-				String.format("<html>Record segment exceeds max analysis length of %.1fs. Click this message to force loading.</html>", maxAnalysisLength));
+				String.format("<html>Record segment exceeds max analysis length of %.1fs. Click this message to force loading.</html>", getMaxAnalysisLength()));
 		maxAnalysisMessage.addAction(forceUpdateAct);
 		maxAnalysisMessage.setDefaultAction(forceUpdateAct);
 		maxAnalysisMessage.setVisible(false);
@@ -307,6 +374,19 @@ public class SpectrogramView extends SpeechAnalysisTier {
 		if(showSpectrogram) update();
 	}
 
+	public void onToggleInterpolateSpectrogram() {
+		interpolateSpectrogram = !interpolateSpectrogram;
+		PrefHelper.getUserPreferences().putBoolean(INTERPOLATE_SPECTROGRAM_PROP, interpolateSpectrogram);
+		spectrogramPanel.tileCache.setInterpolate(interpolateSpectrogram);
+		spectrogramPanel.repaint();
+	}
+
+	public void onToggleAdaptiveResolution() {
+		adaptiveResolution = !adaptiveResolution;
+		PrefHelper.getUserPreferences().putBoolean(ADAPTIVE_RESOLUTION_PROP, adaptiveResolution);
+		update(true);
+	}
+
 	public void onEditSettings() {
 		final AtomicBoolean wasCanceled = new AtomicBoolean(false);
 		final PhonTask onEDT = new PhonTask() {
@@ -377,11 +457,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 					TaskStatus newStatus) {
 				if(newStatus != TaskStatus.RUNNING) {
 					if(!wasCanceled.get()) {
-						final PhonWorker worker = PhonWorker.createWorker();
-						worker.invokeLater(spectrogramLoader);
-						worker.invokeLater( () -> SwingUtilities.invokeLater(updateTask) );
-						worker.setFinishWhenQueueEmpty(true);
-						worker.start();
+						onSettingsChanged(AnalysisSettings.SPECTROGRAM);
 					}
 				}
 			}
@@ -401,14 +477,12 @@ public class SpectrogramView extends SpeechAnalysisTier {
 		showFormants = !showFormants;
 		PrefHelper.getUserPreferences().putBoolean(SHOW_FORMANTS_PROP, showFormants);
 
-		final PhonWorker worker = PhonWorker.createWorker();
-		worker.setFinishWhenQueueEmpty(true);
 		if(showFormants) {
 			formantPainter.setMaxFrequency(spectrogramSettings.getMaxFrequency());
-			worker.invokeLater(formantLoader);
+			loadIfChanged(formantLoader, createSegmentSound());
+		} else {
+			SwingUtilities.invokeLater(updateTask);
 		}
-		worker.invokeLater( () -> SwingUtilities.invokeLater(updateTask) );
-		worker.start();
 	}
 
 	public void onEditFormantSettings() {
@@ -464,11 +538,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 			formantPainter.setMaxFrequency(spectrogramSettings.getMaxFrequency());
 			formantPainter.setRepaintBuffer(true);
 
-			final PhonWorker worker = PhonWorker.createWorker();
-			worker.setFinishWhenQueueEmpty(true);
-			worker.invokeLater(formantLoader);
-			worker.invokeLater( () -> SwingUtilities.invokeLater(updateTask) );
-			worker.start();
+			onSettingsChanged(AnalysisSettings.FORMANT);
 		}
 	}
 
@@ -476,14 +546,11 @@ public class SpectrogramView extends SpeechAnalysisTier {
 		showPitch = !showPitch;
 		PrefHelper.getUserPreferences().putBoolean(SHOW_PITCH_PROP, showPitch);
 
-		final PhonWorker worker = PhonWorker.createWorker();
-		worker.setFinishWhenQueueEmpty(true);
-
 		if(showPitch) {
-			worker.invokeLater(pitchLoader);
+			loadIfChanged(pitchLoader, createSegmentSound());
+		} else {
+			SwingUtilities.invokeLater(updateTask);
 		}
-		worker.invokeLater( () -> SwingUtilities.invokeLater(updateTask) );
-		worker.start();
 	}
 
 	public void onEditPitchSettings() {
@@ -538,11 +605,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 			pitchPainter.setSettings(pitchSettings);
 			pitchPainter.setRepaintBuffer(true);
 
-			final PhonWorker worker = PhonWorker.createWorker();
-			worker.setFinishWhenQueueEmpty(true);
-			worker.invokeLater(pitchLoader);
-			worker.invokeLater( () -> SwingUtilities.invokeLater(updateTask) );
-			worker.start();
+			onSettingsChanged(AnalysisSettings.PITCH);
 		}
 	}
 
@@ -602,13 +665,11 @@ public class SpectrogramView extends SpeechAnalysisTier {
 		showIntensity = !showIntensity;
 		PrefHelper.getUserPreferences().putBoolean(SHOW_INTENSITY_PROP, showIntensity);
 
-		final PhonWorker worker = PhonWorker.createWorker();
-		worker.setFinishWhenQueueEmpty(true);
 		if(showIntensity) {
-			worker.invokeLater(intensityLoader);
+			loadIfChanged(intensityLoader, createSegmentSound());
+		} else {
+			SwingUtilities.invokeLater(updateTask);
 		}
-		worker.invokeLater( () -> SwingUtilities.invokeLater(updateTask) );
-		worker.start();
 	}
 
 	public void onEditIntensitySettings() {
@@ -660,24 +721,24 @@ public class SpectrogramView extends SpeechAnalysisTier {
 
 		if(!wasCanceled.get()) {
 			intensitySettings = settingsPanel.getSettings();
+			intensityPainter.setSettings(intensitySettings);
 			intensityPainter.setRepaintBuffer(true);
 
-			final PhonWorker worker = PhonWorker.createWorker();
-			worker.setFinishWhenQueueEmpty(true);
-			worker.invokeLater(intensityLoader);
-			worker.invokeLater( () -> SwingUtilities.invokeLater(updateTask) );
-			worker.start();
+			onSettingsChanged(AnalysisSettings.INTENSITY);
 		}
 	}
 
-	@SuppressWarnings("resource")
 	public void listPitch() {
-		final Pitch pitch = (pitchRef.get() != null ? pitchRef.get() : loadPitch());
-		if(pitch == null) return;
+		try(final AnalysisSnapshot<Pitch> pitchSnapshot = loadForCurrentSegment(this::acquireExactPitch)) {
+			if(pitchSnapshot == null) return;
+			listPitch(pitchSnapshot.get());
+		}
+	}
 
+	private void listPitch(Pitch pitch) {
 		Interval interval = getParentView().getSelectionInterval() != null ? getParentView().getSelectionInterval() : getParentView().getCurrentRecordInterval();
 		if(interval == null) return;
-		
+	
 		float startTime = interval.getStartMarker().getTime();
 		float endTime = interval.getEndMarker().getTime();
 		float length = endTime - startTime;
@@ -734,18 +795,10 @@ public class SpectrogramView extends SpeechAnalysisTier {
 			out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.SHOW_TABLE_CODE);
 			out.flush();
 			out.close();
-			
+		
 		} catch(IOException e) {
 			LogUtil.warning(e);
 		}
-		// delete pitch if necessary
-		if(pitch != pitchRef.get()) {
-			try {
-				pitch.close();
-			} catch (Exception e) {
-				LogUtil.severe(e);
-			}
-		}
 	}
 
 	public void listDuration() {
@@ -811,10 +864,10 @@ public class SpectrogramView extends SpeechAnalysisTier {
 		final NumberFormat format = NumberFormat.getNumberInstance();
 		format.setMaximumFractionDigits(6);
 
-		final Formant formants = (formantRef.get() != null ? formantRef.get() : loadFormants());
-		try {
-			if(formants == null)
+		try(final AnalysisSnapshot<Formant> formantSnapshot = formantData.acquireOrLoad(() -> loadForCurrentSegment(this::loadFormants))) {
+			if(formantSnapshot == null)
 				throw new PraatException("No formant information loaded");
+			final Formant formants = formantSnapshot.get();
 			try(Table formantTable = formants.downto_Table(false, true, 6,
 					formantSettings.isIncludeIntensity(), 6, formantSettings.isIncludeNumFormants(), 6, formantSettings.isIncludeBandwidths())) {
 				final BufferWindow bw = BufferWindow.getBufferWindow();
@@ -865,88 +918,75 @@ public class SpectrogramView extends SpeechAnalysisTier {
 				out.flush();
 				out.close();
 			}
-			
-			// delete formants if necessary
-			if(formants != formantRef.get()) {
-				formants.close();
-			}
 		} catch (Exception pe) {
 			LogUtil.warning(pe);
 			return;
 		}
 	}
 
-	@SuppressWarnings("resource")
 	public void listIntensity() {
-		final Intensity intensity = (intensityRef.get() != null ? intensityRef.get() : loadIntensity());
-		if(intensity == null) return;
+		try(final AnalysisSnapshot<Intensity> intensitySnapshot = intensityData.acquireOrLoad(() -> loadForCurrentSegment(this::loadIntensity))) {
+			if(intensitySnapshot == null) return;
+			final Intensity intensity = intensitySnapshot.get();
 
-		Interval interval = getParentView().getSelectionInterval() != null ? getParentView().getSelectionInterval() : getParentView().getCurrentRecordInterval();
-		if(interval == null) return;
+			Interval interval = getParentView().getSelectionInterval() != null ? getParentView().getSelectionInterval() : getParentView().getCurrentRecordInterval();
+			if(interval == null) return;
 		
-		float startTime = interval.getStartMarker().getTime();
-		float endTime = interval.getEndMarker().getTime();
-		float length = endTime - startTime;
-		if(length <= 0.0f) return;
-
-		final NumberFormat format = NumberFormat.getNumberInstance();
-		format.setMaximumFractionDigits(6);
-
-		final AtomicReference<Long> ixminRef = new AtomicReference<Long>();
-		final AtomicReference<Long> ixmaxRef = new AtomicReference<Long>();
+			float startTime = interval.getStartMarker().getTime();
+			float endTime = interval.getEndMarker().getTime();
+			float length = endTime - startTime;
+			if(length <= 0.0f) return;
 
-		intensity.getWindowSamples(startTime, endTime, ixminRef, ixmaxRef);
+			final NumberFormat format = NumberFormat.getNumberInstance();
+			format.setMaximumFractionDigits(6);
 
-		final int ixmin = ixminRef.get().intValue();
-		final int ixmax = ixmaxRef.get().intValue();
+			final AtomicReference<Long> ixminRef = new AtomicReference<Long>();
+			final AtomicReference<Long> ixmaxRef = new AtomicReference<Long>();
 
-		final BufferWindow bw = BufferWindow.getBufferWindow();
-		bw.showWindow();
-		final BufferPanel bufferPanel = bw.createBuffer("Intensity (" +
-				format.format(startTime) + "-" + format.format(endTime) + ")");
-		final LogBuffer buffer = bufferPanel.getLogBuffer();
+			intensity.getWindowSamples(startTime, endTime, ixminRef, ixmaxRef);
 
-		try {
-			final PrintWriter out =
-					new PrintWriter(new OutputStreamWriter(buffer.getStdOutStream(), "UTF-8"));
-			out.flush();
-			out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.SHOW_BUSY);
-			out.flush();
-			final char qc = '\"';
-			final char sc = ',';
+			final int ixmin = ixminRef.get().intValue();
+			final int ixmax = ixmaxRef.get().intValue();
 
-			final StringBuilder sb = new StringBuilder();
-			sb.append(qc).append("Time(s)").append(qc).append(sc);
-			sb.append(qc).append("Intensity(dB)").append(qc);
-			out.println(sb.toString());
-			sb.setLength(0);
+			final BufferWindow bw = BufferWindow.getBufferWindow();
+			bw.showWindow();
+			final BufferPanel bufferPanel = bw.createBuffer("Intensity (" +
+					format.format(startTime) + "-" + format.format(endTime) + ")");
+			final LogBuffer buffer = bufferPanel.getLogBuffer();
 
-			for(int i = ixmin; i < ixmax; i++) {
-				final double time = intensity.indexToX(i);
-				final double val = intensity.getValueAtSample(i, 1, Intensity.UNITS_DB);
+			try {
+				final PrintWriter out =
+						new PrintWriter(new OutputStreamWriter(buffer.getStdOutStream(), "UTF-8"));
+				out.flush();
+				out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.SHOW_BUSY);
+				out.flush();
+				final char qc = '\"';
+				final char sc = ',';
 
-				sb.append(qc).append(format.format(time)).append(qc).append(sc);
-				sb.append(qc).append(format.format(val)).append(qc);
+				final StringBuilder sb = new StringBuilder();
+				sb.append(qc).append("Time(s)").append(qc).append(sc);
+				sb.append(qc).append("Intensity(dB)").append(qc);
 				out.println(sb.toString());
 				sb.setLength(0);
-			}
 
-			out.flush();
-			out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.STOP_BUSY);
-			out.flush();
-			out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.SHOW_TABLE_CODE);
-			out.flush();
-			out.close();
-		} catch (IOException e) {
-			LogUtil.warning(e);
-		}
-		
-		// delete intensity if necessary
-		if(intensity != intensityRef.get()) {
-			try {
-				intensity.close();
-			} catch (Exception e) {
-				LogUtil.severe(e);
+				for(int i = ixmin; i < ixmax; i++) {
+					final double time = intensity.indexToX(i);
+					final double val = intensity.getValueAtSample(i, 1, Intensity.UNITS_DB);
+
+					sb.append(qc).append(format.format(time)).append(qc).append(sc);
+					sb.append(qc).append(format.format(val)).append(qc);
+					out.println(sb.toString());
+					sb.setLength(0);
+				}
+
+				out.flush();
+				out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.STOP_BUSY);
+				out.flush();
+				out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.SHOW_TABLE_CODE);
+				out.flush();
+				out.close();
+			} catch (IOException e) {
+				LogUtil.warning(e);
 			}
 		}
 	}
@@ -1009,64 +1049,61 @@ public class SpectrogramView extends SpeechAnalysisTier {
 	}
 	
 	public void listPulses() {
-		final PointProcess pulses = loadPulses();
-		if(pulses == null) return;
-
 		Interval interval = getParentView().getSelectionInterval() != null ? getParentView().getSelectionInterval() : getParentView().getCurrentRecordInterval();
 		if(interval == null) return;
-		
-		float startTime = interval.getStartMarker().getTime();
-		float endTime = interval.getEndMarker().getTime();
-		float length = endTime - startTime;
-		if(length <= 0.0f) return;
 
-		final NumberFormat format = NumberFormat.getNumberInstance();
-		format.setMaximumFractionDigits(6);
+		try(final AnalysisSnapshot<PointProcess> pulsesSnapshot = AnalysisSnapshot.of(loadForCurrentSegment(this::loadPulses))) {
+			if(pulsesSnapshot == null) return;
+			final PointProcess pulses = pulsesSnapshot.get();
 
-		final BufferWindow bw = BufferWindow.getBufferWindow();
-		bw.showWindow();
-		final BufferPanel bufferPanel = bw.createBuffer("Pulses (" +
-				format.format(startTime) + "-" + format.format(endTime) + ")");
-		final LogBuffer buffer = bufferPanel.getLogBuffer();
+			float startTime = interval.getStartMarker().getTime();
+			float endTime = interval.getEndMarker().getTime();
+			float length = endTime - startTime;
+			if(length <= 0.0f) return;
 
-		long i1 = pulses.getHighIndex(startTime);
-		long i2 = pulses.getLowIndex(endTime);
-		
-		// print header
-		try {
-			final PrintWriter out =
-					new PrintWriter(new OutputStreamWriter(buffer.getStdOutStream(), "UTF-8"));
-			out.flush();
-			out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.SHOW_BUSY);
-			out.flush();
-			final StringBuilder sb = new StringBuilder();
-			final char qc = '\"';
-			sb.append(qc).append("Time(s)").append(qc);
-			out.println(sb.toString());
-			sb.setLength(0);
+			final NumberFormat format = NumberFormat.getNumberInstance();
+			format.setMaximumFractionDigits(6);
 
-			for(long i = i1; i <= i2; i++) {
-				double t = pulses.getValueAtIndex(i);
-				
-				sb.append(qc).append(format.format(t)).append(qc);
+			final BufferWindow bw = BufferWindow.getBufferWindow();
+			bw.showWindow();
+			final BufferPanel bufferPanel = bw.createBuffer("Pulses (" +
+					format.format(startTime) + "-" + format.format(endTime) + ")");
+			final LogBuffer buffer = bufferPanel.getLogBuffer();
+
+			long i1 = pulses.getHighIndex(startTime);
+			long i2 = pulses.getLowIndex(endTime);
+
+			// print header
+			try {
+				final PrintWriter out =
+						new PrintWriter(new OutputStreamWriter(buffer.getStdOutStream(), "UTF-8"));
+				out.flush();
+				out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.SHOW_BUSY);
+				out.flush();
+				final StringBuilder sb = new StringBuilder();
+				final char qc = '\"';
+				sb.append(qc).append("Time(s)").append(qc);
 				out.println(sb.toString());
 				sb.setLength(0);
-			}
 
-			out.flush();
-			out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.STOP_BUSY);
-			out.flush();
-			out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.SHOW_TABLE_CODE);
-			out.flush();
-			out.close();
-			
-		} catch(IOException e) {
-			LogUtil.warning(e);
-		}
-		try {
-			pulses.close();
-		} catch (Exception e) {
-			LogUtil.severe(e);
+				for(long i = i1; i <= i2; i++) {
+					double t = pulses.getValueAtIndex(i);
+
+					sb.append(qc).append(format.format(t)).append(qc);
+					out.println(sb.toString());
+					sb.setLength(0);
+				}
+
+				out.flush();
+				out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.STOP_BUSY);
+				out.flush();
+				out.print(LogBuffer.ESCAPE_CODE_PREFIX + BufferPanel.SHOW_TABLE_CODE);
+				out.flush();
+				out.close();
+
+			} catch(IOException e) {
+				LogUtil.warning(e);
+			}
 		}
 	}
 
@@ -1085,9 +1122,12 @@ public class SpectrogramView extends SpeechAnalysisTier {
 	}
 	
 	/**
-	 * @return
+	 * Create shared audio for the current record segment.  Consumers must
+	 * retain the returned segment before use.
+	 *
+	 * @return segment sound or <code>null</code> if no segment/audio is available
 	 */
-	private Spectrogram loadSpectrogram() {
+	private SegmentSound createSegmentSound() {
 		final MediaSegment segment = getSegment();
 		if(segment == null || segment.getEndValue() - segment.getStartValue() <= 0.0f) {
 			return null;
@@ -1095,102 +1135,568 @@ public class SpectrogramView extends SpeechAnalysisTier {
 		final File audioFile = getAudioFile();
 		if(audioFile == null) return null;
 
-		final double xmin = (double)segment.getStartTime();
-		final double xmax = (double)segment.getEndTime();
+		return new SegmentSound(audioFile, (double)segment.getStartTime(), (double)segment.getEndTime());
+	}
+
+	/**
+	 * Load data for the current record segment outside of the display loaders.
+	 *
+	 * @param loader
+	 * @return loaded data or <code>null</code>
+	 */
+	private <T> T loadForCurrentSegment(java.util.function.Function<SegmentSound, T> loader) {
+		final SegmentSound segmentSound = createSegmentSound();
+		if(segmentSound == null) return null;
+
+		segmentSound.retain();
+		try {
+			return loader.apply(segmentSound);
+		} finally {
+			segmentSound.release();
+		}
+	}
+
+	/**
+	 * Analysis of a segment sound.
+	 */
+	@FunctionalInterface
+	private interface SoundAnalysis<T> {
+		public T analyse(Sound sound) throws PraatException;
+	}
 
-		Spectrogram spectrogram = null;
-		try (final LongSound longSound = LongSound.open(MelderFile.fromPath(getAudioFile().getAbsolutePath()))) {
-			try(final Sound part = longSound.extractPart(xmin, xmax, true)) {
-				spectrogram = part.to_Spectrogram(
-					spectrogramSettings.getWindowLength(), spectrogramSettings.getMaxFrequency(),
-					spectrogramSettings.getTimeStep(), spectrogramSettings.getFrequencyStep(),
-					spectrogramSettings.getWindowShape(), 8.0, 8.0);
+	/**
+	 * Load analysis for segment, using the project analysis cache when
+	 * available.  Cache hits skip audio extraction and analysis entirely.
+	 *
+	 * @param segmentSound
+	 * @param type
+	 * @param analysis name of analysis
+	 * @param fingerprint fingerprint of analysis settings, <code>null</code>
+	 *  to bypass the cache (e.g., preview analyses)
+	 * @param soundAnalysis
+	 *
+	 * @return analysis result or <code>null</code>
+	 */
+	private <T extends Daata> T loadAnalysis(SegmentSound segmentSound, Class<T> type, String analysis,
+			String fingerprint, SoundAnalysis<T> soundAnalysis) {
+		final AnalysisCache cache = (fingerprint != null
+				? AnalysisCache.getCache(getParentView().getEditor().getProject()) : null);
+		String cacheKey = null;
+		if(cache != null) {
+			cacheKey = cache.createKey(segmentSound.getAudioFile(), segmentSound.getStartTime(),
+					segmentSound.getEndTime(), analysis, fingerprint);
+			final T cachedData = cache.load(cacheKey, type);
+			if(cachedData != null) return NativeLeakDetector.getInstance().allocated(cachedData);
+		}
+
+		T retVal = null;
+		try {
+			retVal = NativeLeakDetector.getInstance().allocated(soundAnalysis.analyse(segmentSound.getSound()));
+			if(cache != null && retVal != null) {
+				cache.store(cacheKey, retVal);
 			}
 		} catch (Exception e) {
 			LogUtil.warning(e);
 		}
-		return spectrogram;
+		return retVal;
 	}
 
-	private Pitch loadPitch() {
-		final MediaSegment segment = getSegment();
-		if(segment == null || segment.getEndValue() - segment.getStartValue() <= 0.0f) {
-			return null;
+	/**
+	 * Max length of segment which will be analysed without forcing.
+	 *
+	 * @return max analysis length in seconds
+	 */
+	public double getMaxAnalysisLength() {
+		return (tiledAnalysis ? Math.max(maxAnalysisLength, maxTiledAnalysisLength) : maxAnalysisLength);
+	}
+
+	/**
+	 * Return the portion of the given time range which is visible
+	 * in the spectrogram panel.
+	 *
+	 * @param startTime
+	 * @param endTime
+	 * @return visible range as <code>{start, end}</code>
+	 */
+	private double[] getVisibleTimeRange(double startTime, double endTime) {
+		final Rectangle visibleRect = spectrogramPanel.getVisibleRect();
+		final double x1 = getTimeModel().xForTime((float)startTime);
+		final double x2 = getTimeModel().xForTime((float)endTime);
+		if(visibleRect.width <= 0 || x2 <= x1) {
+			return new double[] { startTime, endTime };
 		}
-		final File audioFile = getAudioFile();
-		if(audioFile == null) return null;
-		
-		final double xmin = (double)segment.getStartTime();
-		final double xmax = (double)segment.getEndTime();
-
-		Pitch pitch = null;
-		try (final LongSound longSound = LongSound.open(MelderFile.fromPath(getAudioFile().getAbsolutePath()))) {
-			try(final Sound part = longSound.extractPart(xmin, xmax, true)) {
-				if(pitchSettings.isAutoCorrelate()) {
-					pitch = part.to_Pitch_ac(pitchSettings.getTimeStep(), pitchSettings.getRangeStart(), 3.0,
-						pitchSettings.getMaxCandidates(), (pitchSettings.isVeryAccurate() ? 1 : 0), pitchSettings.getSilenceThreshold(),
-						pitchSettings.getVoicingThreshold(), pitchSettings.getOctaveCost(),
-						pitchSettings.getOctaveJumpCost(), pitchSettings.getVoicedUnvoicedCost(), pitchSettings.getRangeEnd());
-				} else {
-					pitch = part.to_Pitch_cc(pitchSettings.getTimeStep(), pitchSettings.getRangeStart(), 3.0,
-						pitchSettings.getMaxCandidates(), (pitchSettings.isVeryAccurate() ? 1 : 0), pitchSettings.getSilenceThreshold(),
-						pitchSettings.getVoicingThreshold(), pitchSettings.getOctaveCost(),
-						pitchSettings.getOctaveJumpCost(), pitchSettings.getVoicedUnvoicedCost(), pitchSettings.getRangeEnd());
+		final double secondsPerPixel = (endTime - startTime) / (x2 - x1);
+		final double visibleStart = Math.max(startTime, startTime + (visibleRect.getMinX() - x1) * secondsPerPixel);
+		final double visibleEnd = Math.min(endTime, startTime + (visibleRect.getMaxX() - x1) * secondsPerPixel);
+		return (visibleEnd > visibleStart ? new double[] { visibleStart, visibleEnd } : new double[] { startTime, endTime });
+	}
+
+	/**
+	 * Seconds represented by one pixel of the timeline.
+	 *
+	 * @return seconds per pixel or <code>0.0</code> if not available
+	 */
+	private double getSecondsPerPixel() {
+		final double pixelsPerSecond = getTimeModel().xForTime(1.0f) - getTimeModel().xForTime(0.0f);
+		return (pixelsPerSecond > 0.0 ? 1.0 / pixelsPerSecond : 0.0);
+	}
+
+	/**
+	 * Frequency step represented by one pixel of the spectrogram panel.
+	 *
+	 * @param settings
+	 * @return frequency step or <code>0.0</code> if not available
+	 */
+	private double getHertzPerPixel(SpectrogramSettings settings) {
+		final int height = spectrogramPanel.getHeight();
+		return (height > 0 ? settings.getMaxFrequency() / height : 0.0);
+	}
+
+	/**
+	 * Returns <code>true</code> if <code>step</code> is coarser than
+	 * <code>requiredStep</code>, allowing for rounding.
+	 */
+	private static boolean isCoarser(double step, double requiredStep) {
+		return step > requiredStep * 1.001;
+	}
+
+	/**
+	 * Settings used to compute the displayed spectrogram.  When adaptive
+	 * resolution is enabled time and frequency steps are no finer than
+	 * one pixel of the display.
+	 *
+	 * @param settings configured settings
+	 * @return preview settings or <code>settings</code> if the display
+	 *  resolution is not coarser than the configured resolution
+	 */
+	private SpectrogramSettings getPreviewSettings(SpectrogramSettings settings) {
+		if(!adaptiveResolution) return settings;
+
+		final double timeStep = Math.max(settings.getTimeStep(), getSecondsPerPixel());
+		final double frequencyStep = Math.max(settings.getFrequencyStep(), getHertzPerPixel(settings));
+		if(!isCoarser(timeStep, settings.getTimeStep()) && !isCoarser(frequencyStep, settings.getFrequencyStep())) {
+			return settings;
+		}
+
+		final SpectrogramSettings retVal = new SpectrogramSettings();
+		retVal.setWindowLength(settings.getWindowLength());
+		retVal.setMaxFrequency(settings.getMaxFrequency());
+		retVal.setWindowShape(settings.getWindowShape());
+		retVal.setPreEmphasis(settings.getPreEmphasis());
+		retVal.setDynamicRange(settings.getDynamicRange());
+		retVal.setDynamicCompression(settings.getDynamicCompression());
+		retVal.setTimeStep(timeStep);
+		retVal.setFrequencyStep(frequencyStep);
+		return retVal;
+	}
+
+	/**
+	 * Load spectrogram for segment.  When tiled analysis is enabled, segments
+	 * longer than the tile length are split into tiles which overlap by the
+	 * analysis window length.  Tile audio is cut from the shared segment sound.
+	 * Tiles are computed independently on the analysis executor, tiles in the
+	 * visible portion of the timeline first.  The first tile is loaded before
+	 * returning; the remaining tiles are added to the returned spectrogram as
+	 * they become available.
+	 *
+	 * When adaptive resolution is enabled tiles are computed using
+	 * {@link #getPreviewSettings(SpectrogramSettings)} and refined when
+	 * they become visible at a finer display resolution.
+	 *
+	 * @param segmentSound
+	 * @return tiled spectrogram or <code>null</code>
+	 */
+	private TiledSpectrogram loadSpectrogram(SegmentSound segmentSound) {
+		final TiledSpectrogram prefetched = takePrefetched(segmentSound, TiledSpectrogram.class, AnalysisType.SPECTROGRAM);
+		if(prefetched != null) return prefetched;
+
+		final long generation = loadGeneration.get();
+		final SpectrogramSettings settings = getPreviewSettings(spectrogramSettings);
+		final boolean exact = (settings == spectrogramSettings);
+		final TiledSpectrogram retVal = new TiledSpectrogram(segmentSound.getStartTime(), segmentSound.getEndTime(),
+				(tiledAnalysis ? tileLength : 0.0), settings.getWindowLength());
+
+		if(retVal.getNumTiles() == 1) {
+			if(!retVal.setTile(0, loadSpectrogramMatrix(segmentSound, settings, exact), exact)) {
+				retVal.close();
+				return null;
+			}
+			return retVal;
+		}
+
+		final double[] visibleRange = getVisibleTimeRange(segmentSound.getStartTime(), segmentSound.getEndTime());
+		final List<Integer> loadOrder = retVal.getLoadOrder(visibleRange[0], visibleRange[1]);
+		final int firstTile = loadOrder.get(0);
+		retVal.setTile(firstTile, loadSpectrogramTile(createTileSound(retVal, firstTile, segmentSound), settings, exact), exact);
+		for(int i = 1; i < loadOrder.size(); i++) {
+			final int tile = loadOrder.get(i);
+			// retain the segment audio until the tile has been computed
+			final SegmentSound tileSound = createTileSound(retVal, tile, segmentSound).retain();
+			AnalysisExecutor.getInstance().submit("Spectrogram tile " + tile, () -> {
+				try {
+					if(generation != loadGeneration.get() || retVal.isClosed()) return;
+					retVal.setTile(tile, loadSpectrogramTile(tileSound, settings, exact), exact);
+					spectrogramPainter.setRepaintBuffer(true);
+					SwingUtilities.invokeLater(updateTask);
+				} finally {
+					tileSound.release();
 				}
+			});
+		}
+		return retVal;
+	}
+
+	/**
+	 * Create audio for a tile of spectrogram, cut from the given segment.
+	 *
+	 * @param tiledSpectrogram
+	 * @param tile
+	 * @param segmentSound
+	 * @return tile audio
+	 */
+	private SegmentSound createTileSound(TiledSpectrogram tiledSpectrogram, int tile, SegmentSound segmentSound) {
+		return new SegmentSound(segmentSound, tiledSpectrogram.getAnalysisStart(tile), tiledSpectrogram.getAnalysisEnd(tile));
+	}
+
+	private SpectrogramMatrix loadSpectrogramTile(SegmentSound tileSound, SpectrogramSettings settings, boolean exact) {
+		tileSound.retain();
+		try {
+			return loadSpectrogramMatrix(tileSound, settings, exact);
+		} finally {
+			tileSound.release();
+		}
+	}
+
+	/**
+	 * Load spectrogram and copy values into a {@link SpectrogramMatrix}.
+	 * The native spectrogram is released once copied.
+	 *
+	 * @param segmentSound
+	 * @param settings
+	 * @param exact <code>false</code> for preview spectrograms, which are not cached
+	 * @return spectrogram values or <code>null</code>
+	 */
+	private SpectrogramMatrix loadSpectrogramMatrix(SegmentSound segmentSound, SpectrogramSettings settings, boolean exact) {
+		final Spectrogram spectrogram = loadSpectrogram(segmentSound, settings, exact);
+		if(spectrogram == null) return null;
+		try {
+			return SpectrogramMatrix.copyOf(spectrogram);
+		} finally {
+			AnalysisSnapshot.dispose(spectrogram);
+		}
+	}
+
+	private Spectrogram loadSpectrogram(SegmentSound segmentSound, SpectrogramSettings settings, boolean exact) {
+		return loadAnalysis(segmentSound, Spectrogram.class, "Spectrogram", (exact ? settings.getFingerprint() : null),
+			(part) -> part.to_Spectrogram(
+				settings.getWindowLength(), settings.getMaxFrequency(),
+				settings.getTimeStep(), settings.getFrequencyStep(),
+				settings.getWindowShape(), 8.0, 8.0) );
+	}
+
+	/**
+	 * Settings objects used by the analyses of this view.
+	 */
+	private enum AnalysisSettings {
+		SPECTROGRAM,
+		FORMANT,
+		PITCH,
+		INTENSITY;
+	}
+
+	/**
+	 * Dependency graph of the analyses computed by this view.  Each
+	 * analysis declares the settings it is computed from and the
+	 * analyses it is derived from.  Derived analyses re-use a published
+	 * result of their inputs when it was computed for the same segment
+	 * and settings; the graph also determines which analyses are
+	 * affected when a settings object changes.
+	 */
+	private enum AnalysisType {
+		SPECTROGRAM("Spectrogram", AnalysisSettings.SPECTROGRAM),
+		FORMANT("Formant", AnalysisSettings.FORMANT),
+		PITCH("Pitch", AnalysisSettings.PITCH),
+		// intensity analysis uses the pitch floor as minimum pitch
+		INTENSITY("Intensity", AnalysisSettings.INTENSITY, AnalysisSettings.PITCH),
+		PULSES("Pulses", new AnalysisType[] { PITCH }),
+		PITCH_LISTING("Pitch listing", new AnalysisType[] { PITCH });
+
+		private final String analysisName;
+
+		private final AnalysisSettings[] settings;
+
+		private final AnalysisType[] inputs;
+
+		private AnalysisType(String analysisName, AnalysisSettings ... settings) {
+			this.analysisName = analysisName;
+			this.settings = settings;
+			this.inputs = new AnalysisType[0];
+		}
+
+		private AnalysisType(String analysisName, AnalysisType[] inputs) {
+			this.analysisName = analysisName;
+			this.settings = new AnalysisSettings[0];
+			this.inputs = inputs;
+		}
+
+		public String getAnalysisName() {
+			return analysisName;
+		}
+
+		public AnalysisType[] getInputs() {
+			return inputs;
+		}
+
+		/**
+		 * @param analysisSettings
+		 * @return <code>true</code> if this analysis depends on the given
+		 *  settings directly or through one of its inputs
+		 */
+		public boolean dependsOn(AnalysisSettings analysisSettings) {
+			for(AnalysisSettings s:settings) {
+				if(s == analysisSettings) return true;
 			}
-		} catch (Exception pe) {
-			LogUtil.warning(pe);
+			for(AnalysisType input:inputs) {
+				if(input.dependsOn(analysisSettings)) return true;
+			}
+			return false;
 		}
-		return pitch;
+
+		/**
+		 * @param analysisSettings
+		 * @return analyses which must be re-computed when the given settings change
+		 */
+		public static Set<AnalysisType> affectedBy(AnalysisSettings analysisSettings) {
+			final Set<AnalysisType> retVal = EnumSet.noneOf(AnalysisType.class);
+			for(AnalysisType analysis:values()) {
+				if(analysis.dependsOn(analysisSettings)) retVal.add(analysis);
+			}
+			return retVal;
+		}
+
 	}
 
-	private Formant loadFormants() {
-		final MediaSegment segment = getSegment();
-		if(segment == null || segment.getEndValue() - segment.getStartValue() <= 0.0f) {
-			return null;
+	/**
+	 * Fingerprint of the settings used by analysis.  Derived analyses
+	 * are identified by the fingerprints of their inputs.
+	 *
+	 * @param analysis
+	 * @return fingerprint
+	 */
+	private String getFingerprint(AnalysisType analysis) {
+		switch(analysis) {
+		case SPECTROGRAM:
+			return spectrogramSettings.getFingerprint();
+
+		case FORMANT:
+			return formantSettings.getFingerprint();
+
+		case PITCH:
+			return pitchSettings.getFingerprint();
+
+		case INTENSITY:
+			return intensitySettings.getFingerprint() + ";minPitch=" + pitchSettings.getRangeStart();
+
+		default:
+			final StringBuilder sb = new StringBuilder();
+			for(AnalysisType input:analysis.getInputs()) {
+				if(sb.length() > 0) sb.append(';');
+				sb.append(input.getAnalysisName()).append("={").append(getFingerprint(input)).append('}');
+			}
+			return sb.toString();
 		}
-		final File audioFile = getAudioFile();
-		if(audioFile == null) return null;
-		
-		final double xmin = (double)segment.getStartTime();
-		final double xmax = (double)segment.getEndTime();
-
-		Formant formants = null;
-		try (final LongSound longSound = LongSound.open(MelderFile.fromPath(getAudioFile().getAbsolutePath()))) {
-			try(final Sound part = longSound.extractPart(xmin, xmax, true)) {
-				formants =
-						part.to_Formant_burg(formantSettings.getTimeStep(), formantSettings.getNumFormants(),
-								formantSettings.getMaxFrequency(), formantSettings.getWindowLength(), formantSettings.getPreEmphasis());
+	}
+
+	/**
+	 * Key identifying analysis of segment using the current settings.
+	 *
+	 * @param segmentSound
+	 * @param analysis
+	 * @return key
+	 */
+	private String createAnalysisKey(SegmentSound segmentSound, AnalysisType analysis) {
+		return PrefetchCache.createKey(segmentSound.getAudioFile(), segmentSound.getStartTime(),
+				segmentSound.getEndTime(), analysis.getAnalysisName(), getFingerprint(analysis));
+	}
+
+	/**
+	 * Acquire pitch for segment computed using the configured settings.
+	 * The displayed pitch is re-used if it was computed for the same
+	 * segment and settings (and is not a preview), otherwise pitch
+	 * is loaded into a private snapshot.
+	 *
+	 * @param segmentSound
+	 * @return pitch snapshot, must be closed by the caller, or <code>null</code>
+	 */
+	private AnalysisSnapshot<Pitch> acquireExactPitch(SegmentSound segmentSound) {
+		final AnalysisSnapshot<Pitch> published = pitchData.acquire(createAnalysisKey(segmentSound, AnalysisType.PITCH));
+		if(published != null) {
+			if(isExactPitch(published.get())) return published;
+			published.close();
+		}
+		return AnalysisSnapshot.of(loadExactPitch(segmentSound));
+	}
+
+	/**
+	 * Time step of pitch analysis using the configured settings.
+	 *
+	 * @return time step
+	 */
+	private double getPitchTimeStep() {
+		// a time step of 0.0 uses the praat default of 0.75/pitch floor
+		return (pitchSettings.getTimeStep() > 0.0 ? pitchSettings.getTimeStep() : 0.75 / pitchSettings.getRangeStart());
+	}
+
+	/**
+	 * @param pitch
+	 * @return <code>true</code> if pitch was computed using the configured time step
+	 */
+	private boolean isExactPitch(Pitch pitch) {
+		return !isCoarser(pitch.getDx(), getPitchTimeStep());
+	}
+
+	/**
+	 * Load pitch for display.  When adaptive resolution is enabled the
+	 * time step is no finer than one pixel of the display.
+	 *
+	 * @param segmentSound
+	 * @return pitch or <code>null</code>
+	 */
+	private Pitch loadPitch(SegmentSound segmentSound) {
+		final Pitch prefetched = takePrefetched(segmentSound, Pitch.class, AnalysisType.PITCH);
+		if(prefetched != null) return prefetched;
+
+		if(adaptiveResolution) {
+			final double timeStep = getPitchTimeStep();
+			final double previewTimeStep = Math.max(timeStep, getSecondsPerPixel());
+			if(isCoarser(previewTimeStep, timeStep)) {
+				return loadAnalysis(segmentSound, Pitch.class, "Pitch", null, (part) -> toPitch(part, previewTimeStep));
 			}
-		} catch (Exception pe) {
-			LogUtil.warning(pe);
 		}
-		return formants;
+		return loadExactPitch(segmentSound);
 	}
 
-	private Intensity loadIntensity() {
-		final MediaSegment segment = getSegment();
-		if(segment == null || segment.getEndValue() - segment.getStartValue() <= 0.0f) {
-			return null;
+	/**
+	 * Load pitch using the configured settings.
+	 *
+	 * @param segmentSound
+	 * @return pitch or <code>null</code>
+	 */
+	private Pitch loadExactPitch(SegmentSound segmentSound) {
+		return loadAnalysis(segmentSound, Pitch.class, "Pitch", pitchSettings.getFingerprint(), this::toPitch);
+	}
+
+	private Pitch toPitch(Sound part) throws PraatException {
+		return toPitch(part, pitchSettings.getTimeStep());
+	}
+
+	private Pitch toPitch(Sound part, double timeStep) throws PraatException {
+		if(pitchSettings.isAutoCorrelate()) {
+			return part.to_Pitch_ac(timeStep, pitchSettings.getRangeStart(), 3.0,
+				pitchSettings.getMaxCandidates(), (pitchSettings.isVeryAccurate() ? 1 : 0), pitchSettings.getSilenceThreshold(),
+				pitchSettings.getVoicingThreshold(), pitchSettings.getOctaveCost(),
+				pitchSettings.getOctaveJumpCost(), pitchSettings.getVoicedUnvoicedCost(), pitchSettings.getRangeEnd());
+		} else {
+			return part.to_Pitch_cc(timeStep, pitchSettings.getRangeStart(), 3.0,
+				pitchSettings.getMaxCandidates(), (pitchSettings.isVeryAccurate() ? 1 : 0), pitchSettings.getSilenceThreshold(),
+				pitchSettings.getVoicingThreshold(), pitchSettings.getOctaveCost(),
+				pitchSettings.getOctaveJumpCost(), pitchSettings.getVoicedUnvoicedCost(), pitchSettings.getRangeEnd());
 		}
-		final File audioFile = getAudioFile();
-		if(audioFile == null) return null;
+	}
 
-		final double xmin = (double)segment.getStartTime();
-		final double xmax = (double)segment.getEndTime();
-		
-		Intensity intensity = null;
-		try (final LongSound longSound = LongSound.open(MelderFile.fromPath(getAudioFile().getAbsolutePath()))) {
-			try(final Sound part = longSound.extractPart(xmin, xmax, true)) {
-				intensity =
-						part.to_Intensity(pitchSettings.getRangeStart(),
-								0.0,
-								intensitySettings.getSubtractMean());
+	/**
+	 * Replace preview data which is visible at a display resolution finer
+	 * than the preview resolution with data computed using the configured
+	 * settings.  Only visible spectrogram tiles are refined.  Called
+	 * on the EDT after painting, analysis is performed on the analysis executor.
+	 *
+	 * Pitch is refined for the whole segment rather than the visible range:
+	 * the pitch painter draws a single Pitch object and frames of different
+	 * time steps cannot be merged into one, pitch analysis costs a small
+	 * fraction of a spectrogram, and the exact pitch is stored in the
+	 * analysis cache and re-used by the pitch listing and prefetch.  Refining
+	 * only the visible range would repeat the analysis on every scroll and
+	 * zoom; refining the whole segment happens at most once per segment.
+	 *
+	 * @param spectrogram
+	 * @param pitch
+	 */
+	private void refineVisibleAnalyses(TiledSpectrogram spectrogram, Pitch pitch) {
+		if(!adaptiveResolution) return;
+		final double secondsPerPixel = getSecondsPerPixel();
+		if(secondsPerPixel <= 0.0) return;
+		final long generation = loadGeneration.get();
+
+		if(spectrogram != null && !spectrogram.isClosed()) {
+			final SpectrogramSettings settings = spectrogramSettings;
+			final File audioFile = getAudioFile();
+			final double timeStep = Math.max(settings.getTimeStep(), secondsPerPixel);
+			final double frequencyStep = Math.max(settings.getFrequencyStep(), getHertzPerPixel(settings));
+			final double[] visibleRange = getVisibleTimeRange(spectrogram.getXMin(), spectrogram.getXMax());
+			for(int i = 0; i < spectrogram.getNumTiles() && audioFile != null; i++) {
+				if(spectrogram.getTileEnd(i) < visibleRange[0] || spectrogram.getTileStart(i) > visibleRange[1]) continue;
+				final SpectrogramMatrix tileMatrix = spectrogram.getTile(i);
+				if(tileMatrix == null || spectrogram.isExact(i)) continue;
+				if(!isCoarser(tileMatrix.getDx(), timeStep) && !isCoarser(tileMatrix.getDy(), frequencyStep)) continue;
+				if(!spectrogram.beginRefinement(i)) continue;
+
+				final int tile = i;
+				// segment audio is no longer held, read the tile from the audio file
+				AnalysisExecutor.getInstance().submit("Refine spectrogram tile " + tile, () -> {
+					final SpectrogramMatrix exactMatrix = (generation == loadGeneration.get()
+							? loadSpectrogramTile(new SegmentSound(audioFile, spectrogram.getAnalysisStart(tile),
+									spectrogram.getAnalysisEnd(tile)), settings, true) : null);
+					if(spectrogram.refineTile(tile, exactMatrix)) {
+						spectrogramPainter.setRepaintBuffer(true);
+						SwingUtilities.invokeLater(updateTask);
+					}
+				});
 			}
-		} catch (Exception pe) {
-			LogUtil.warning(pe);
 		}
-		return intensity;
+
+		if(pitch != null && !isExactPitch(pitch)
+				&& isCoarser(pitch.getDx(), Math.max(getPitchTimeStep(), secondsPerPixel))
+				&& pitchRefinePending.compareAndSet(false, true)) {
+			// whole segment, see method documentation
+			AnalysisExecutor.getInstance().submit("Refine pitch", () -> {
+				try {
+					if(generation != loadGeneration.get()) return;
+					loadForCurrentSegment( (segmentSound) -> {
+						final String key = createAnalysisKey(segmentSound, AnalysisType.PITCH);
+						final Pitch exactPitch = loadExactPitch(segmentSound);
+						if(exactPitch != null && generation == loadGeneration.get()
+								&& pitchData.publish(generation, exactPitch, key)) {
+							pitchPainter.setRepaintBuffer(true);
+							SwingUtilities.invokeLater(updateTask);
+						} else {
+							AnalysisSnapshot.dispose(exactPitch);
+						}
+						return null;
+					});
+				} finally {
+					pitchRefinePending.set(false);
+				}
+			});
+		}
+	}
+
+	private Formant loadFormants(SegmentSound segmentSound) {
+		final Formant prefetched = takePrefetched(segmentSound, Formant.class, AnalysisType.FORMANT);
+		if(prefetched != null) return prefetched;
+
+		return loadAnalysis(segmentSound, Formant.class, "Formant", formantSettings.getFingerprint(),
+			(part) -> part.to_Formant_burg(formantSettings.getTimeStep(), formantSettings.getNumFormants(),
+					formantSettings.getMaxFrequency(), formantSettings.getWindowLength(), formantSettings.getPreEmphasis()) );
+	}
+
+	private Intensity loadIntensity(SegmentSound segmentSound) {
+		final Intensity prefetched = takePrefetched(segmentSound, Intensity.class, AnalysisType.INTENSITY);
+		if(prefetched != null) return prefetched;
+
+		return loadAnalysis(segmentSound, Intensity.class, "Intensity", getFingerprint(AnalysisType.INTENSITY),
+			(part) -> part.to_Intensity(pitchSettings.getRangeStart(),
+					0.0,
+					intensitySettings.getSubtractMean()) );
 	}
 
 	private Spectrum loadSpectrumForSpectralMoments() {
@@ -1200,61 +1706,46 @@ public class SpectrogramView extends SpeechAnalysisTier {
 		final File audioFile = getAudioFile();
 		if(audioFile == null) return null;
 		
+		float xmin = interval.getStartMarker().getTime();
+		float xmax = interval.getEndMarker().getTime();
+
+		final SegmentSound segmentSound = new SegmentSound(audioFile, xmin, xmax).retain();
 		Spectrum spectrum = null;
-		try (final LongSound longSound = LongSound.open(MelderFile.fromPath(getAudioFile().getAbsolutePath()))) {
-			
-			float xmin = interval.getStartMarker().getTime();
-			float xmax = interval.getEndMarker().getTime();
-			
-			try(final Sound part = longSound.extractPart(xmin, xmax, true)) {
-				try(final Sound shapedPart = part.extractPart(xmin, xmax, spectralMomentsSettings.getWindowShape(), 2, true)) {
-					spectrum = shapedPart.to_Spectrum(true);
-					spectrum.passHannBand(spectralMomentsSettings.getFilterStart(), spectralMomentsSettings.getFilterEnd(), spectralMomentsSettings.getFilterSmoothing());
-		
-					if(spectralMomentsSettings.isUsePreemphasis()) {
-						final String formula =
-								String.format("if x >= %d then self*x else self fi",
-										(Double.valueOf(spectralMomentsSettings.getPreempFrom())).intValue());
-						spectrum.formula(formula, Interpreter.create(), null);
-					}
+		try {
+			final Sound part = segmentSound.getSound();
+			try(final Sound shapedPart = part.extractPart(xmin, xmax, spectralMomentsSettings.getWindowShape(), 2, true)) {
+				spectrum = shapedPart.to_Spectrum(true);
+				spectrum.passHannBand(spectralMomentsSettings.getFilterStart(), spectralMomentsSettings.getFilterEnd(), spectralMomentsSettings.getFilterSmoothing());
+	
+				if(spectralMomentsSettings.isUsePreemphasis()) {
+					final String formula =
+							String.format("if x >= %d then self*x else self fi",
+									(Double.valueOf(spectralMomentsSettings.getPreempFrom())).intValue());
+					spectrum.formula(formula, Interpreter.create(), null);
 				}
 			}
 		} catch (Exception pe) {
 			LogUtil.warning(pe);
+		} finally {
+			segmentSound.release();
 		}
 
 		return spectrum;
 	}
 	
-	private PointProcess loadPulses() {
-		final MediaSegment segment = getSegment();
-		if(segment == null || segment.getEndValue() - segment.getStartValue() <= 0.0f) {
-			return null;
-		}
-		final File audioFile = getAudioFile();
-		if(audioFile == null) return null;
-		
-		final double xmin = (double)segment.getStartTime();
-		final double xmax = (double)segment.getEndTime();
-
+	/**
+	 * Load pulses for segment.  Pulses are derived from pitch, the
+	 * displayed pitch is used if it was computed for the same segment
+	 * and settings.
+	 *
+	 * @param segmentSound
+	 * @return pulses or <code>null</code>
+	 */
+	private PointProcess loadPulses(SegmentSound segmentSound) {
 		PointProcess pulses = null;
-		try (final LongSound longSound = LongSound.open(MelderFile.fromPath(getAudioFile().getAbsolutePath()))) {
-			try(final Sound part = longSound.extractPart(xmin, xmax, true)) {
-				Pitch pitch = null;
-				if(pitchSettings.isAutoCorrelate()) {
-					pitch = part.to_Pitch_ac(pitchSettings.getTimeStep(), pitchSettings.getRangeStart(), 3.0,
-						pitchSettings.getMaxCandidates(), (pitchSettings.isVeryAccurate() ? 1 : 0), pitchSettings.getSilenceThreshold(),
-						pitchSettings.getVoicingThreshold(), pitchSettings.getOctaveCost(),
-						pitchSettings.getOctaveJumpCost(), pitchSettings.getVoicedUnvoicedCost(), pitchSettings.getRangeEnd());
-				} else {
-					pitch = part.to_Pitch_cc(pitchSettings.getTimeStep(), pitchSettings.getRangeStart(), 3.0,
-						pitchSettings.getMaxCandidates(), (pitchSettings.isVeryAccurate() ? 1 : 0), pitchSettings.getSilenceThreshold(),
-						pitchSettings.getVoicingThreshold(), pitchSettings.getOctaveCost(),
-						pitchSettings.getOctaveJumpCost(), pitchSettings.getVoicedUnvoicedCost(), pitchSettings.getRangeEnd());
-				}
-				
-				pulses = pitch.to_PointProcess_cc(part);
-				pitch.close();
+		try(final AnalysisSnapshot<Pitch> pitchSnapshot = acquireExactPitch(segmentSound)) {
+			if(pitchSnapshot != null) {
+				pulses = NativeLeakDetector.getInstance().allocated(pitchSnapshot.get().to_PointProcess_cc(segmentSound.getSound()));
 			}
 		} catch (Exception pe) {
 			LogUtil.warning(pe);
@@ -1262,6 +1753,120 @@ public class SpectrogramView extends SpeechAnalysisTier {
 		return pulses;
 	}
 
+	/**
+	 * Take analysis for segment from the prefetch cache.
+	 *
+	 * @param segmentSound
+	 * @param type
+	 * @param analysis
+	 * @return prefetched data or <code>null</code>
+	 */
+	private <T> T takePrefetched(SegmentSound segmentSound, Class<T> type, AnalysisType analysis) {
+		return prefetchCache.take(createAnalysisKey(segmentSound, analysis), type);
+	}
+
+	/**
+	 * Cancel pending prefetch tasks.  Tasks which have already started
+	 * stop before their next analysis and discard their results.
+	 */
+	private void cancelPrefetch() {
+		prefetchGeneration.incrementAndGet();
+		synchronized(prefetchTasks) {
+			prefetchTasks.forEach( (task) -> task.cancel(false) );
+			prefetchTasks.clear();
+		}
+	}
+
+	/**
+	 * Compute analyses for records neighbouring the current record on the
+	 * low priority background executor, nearest records first.  Results
+	 * are kept in the prefetch cache and used by the display loaders.
+	 * Segments longer than the (untiled) max analysis length are skipped.
+	 *
+	 * @param generation load generation of the current segment
+	 */
+	private void schedulePrefetch(long generation) {
+		if(prefetchRecords <= 0 || generation != loadGeneration.get()) return;
+		final File audioFile = getAudioFile();
+		if(audioFile == null) return;
+
+		final Session session = getParentView().getEditor().getSession();
+		final int currentRecord = getParentView().getEditor().getCurrentRecordIndex();
+		if(currentRecord < 0) return;
+
+		final long prefetchGen = prefetchGeneration.get();
+		for(int i = 1; i <= prefetchRecords; i++) {
+			for(int recordIdx:new int[] { currentRecord + i, currentRecord - i }) {
+				if(recordIdx < 0 || recordIdx >= session.getRecordCount()) continue;
+				final MediaSegment segment = session.getRecord(recordIdx).getMediaSegment();
+				if(segment == null) continue;
+				final double startTime = segment.getStartTime();
+				final double endTime = segment.getEndTime();
+				if(endTime - startTime <= 0.0 || endTime - startTime > maxAnalysisLength) continue;
+
+				final CompletableFuture<Void> task = AnalysisExecutor.getInstance().submitBackground(
+						"Prefetch record " + (recordIdx + 1), () -> prefetch(prefetchGen, audioFile, startTime, endTime));
+				synchronized(prefetchTasks) {
+					prefetchTasks.add(task);
+				}
+			}
+		}
+	}
+
+	private void prefetch(long prefetchGen, File audioFile, double startTime, double endTime) {
+		if(prefetchGen != prefetchGeneration.get()) return;
+		final SegmentSound segmentSound = new SegmentSound(audioFile, startTime, endTime).retain();
+		try {
+			prefetch(prefetchGen, segmentSound, AnalysisType.SPECTROGRAM,
+					(sound) -> prefetchSpectrogram(prefetchGen, sound));
+			if(showFormants)
+				prefetch(prefetchGen, segmentSound, AnalysisType.FORMANT, this::loadFormants);
+			if(showPitch)
+				prefetch(prefetchGen, segmentSound, AnalysisType.PITCH, this::loadExactPitch);
+			if(showIntensity)
+				prefetch(prefetchGen, segmentSound, AnalysisType.INTENSITY, this::loadIntensity);
+		} finally {
+			segmentSound.release();
+		}
+	}
+
+	private void prefetch(long prefetchGen, SegmentSound segmentSound, AnalysisType analysis,
+			java.util.function.Function<SegmentSound, ?> loader) {
+		if(prefetchGen != prefetchGeneration.get()) return;
+		final String key = createAnalysisKey(segmentSound, analysis);
+		if(prefetchCache.contains(key)) return;
+
+		final Object data = loader.apply(segmentSound);
+		if(prefetchGen == prefetchGeneration.get()) {
+			prefetchCache.put(key, data);
+		} else {
+			AnalysisSnapshot.dispose(data);
+		}
+	}
+
+	/**
+	 * Compute all tiles of spectrogram using the configured settings.
+	 *
+	 * @param prefetchGen
+	 * @param segmentSound
+	 * @return spectrogram or <code>null</code> if cancelled
+	 */
+	private TiledSpectrogram prefetchSpectrogram(long prefetchGen, SegmentSound segmentSound) {
+		final SpectrogramSettings settings = spectrogramSettings;
+		final TiledSpectrogram retVal = new TiledSpectrogram(segmentSound.getStartTime(), segmentSound.getEndTime(),
+				(tiledAnalysis ? tileLength : 0.0), settings.getWindowLength());
+		for(int i = 0; i < retVal.getNumTiles(); i++) {
+			final SpectrogramMatrix matrix = (prefetchGen != prefetchGeneration.get() ? null
+					: retVal.getNumTiles() == 1 ? loadSpectrogramMatrix(segmentSound, settings, true)
+					: loadSpectrogramTile(createTileSound(retVal, i, segmentSound), settings, true));
+			if(!retVal.setTile(i, matrix)) {
+				retVal.close();
+				return null;
+			}
+		}
+		return retVal;
+	}
+
 	private void onSessionAudioAvailable(EditorEvent<SessionMediaModel> ee) {
 		if(!shouldShow() || !getParentView().getEditor().getViewModel().isShowingInStack(SpeechAnalysisEditorView.VIEW_NAME)) return;
 		update(true);
@@ -1287,62 +1892,191 @@ public class SpectrogramView extends SpeechAnalysisTier {
 	
 	private void onEditorClosing(EditorEvent<Void> ee) {
 		// cleanup any loaded data
+		cancelPrefetch();
 		cleanup();
+		prefetchCache.clear();
 	}
 
 	/**
-	 * Generic load data class with reentrant lock
+	 * Generic load data class.  Loaded data is published to an {@link AnalysisData}
+	 * instance, painting never waits on analysis.
 	 *
 	 * @param <T>
 	 */
-	private class LoadData<T> extends PhonTask {
+	private class LoadData<T> {
+
+		private AnalysisData<T> analysisData;
 
-		private final ReentrantLock updateLock = new ReentrantLock();
+		private java.util.function.Function<SegmentSound, T> loader;
 
-		private AtomicReference<T> ref;
+		private final AnalysisType analysis;
 
-		private Supplier<T> supplier;
+		/* invalidates painter buffer when new data is published */
+		private final Runnable invalidatePainter;
 
-		public LoadData(AtomicReference<T> ref, Supplier<T> supplier) {
+		public LoadData(AnalysisType analysis, AnalysisData<T> analysisData, Runnable invalidatePainter,
+				java.util.function.Function<SegmentSound, T> loader) {
 			super();
 
-			this.ref = ref;
-			this.supplier = supplier;
+			this.analysis = analysis;
+			this.analysisData = analysisData;
+			this.invalidatePainter = invalidatePainter;
+			this.loader = loader;
 		}
 
-		@Override
-		public void performTask() {
-			super.setStatus(TaskStatus.RUNNING);
+		public String getName() {
+			return analysis.getAnalysisName();
+		}
 
-			final MediaSegment segment = getSegment();
-			if(segment == null) {
-				if(updateLock.isLocked())
-					updateLock.unlock();
-				return;
-			}
-			
-			updateLock.lock();
+		public AnalysisType getAnalysis() {
+			return analysis;
+		}
 
-			try {
-				final T data = supplier.get();
-				ref.set(data);
-			} catch (Exception e) {
-				LogUtil.warning(e);
-				super.err = e;
-				super.setStatus(TaskStatus.ERROR);
-			}
+		public AnalysisData<T> getAnalysisData() {
+			return analysisData;
+		}
+
+		public void invalidatePainter() {
+			invalidatePainter.run();
+		}
+
+		/**
+		 * Create a task which loads data from the given segment audio.  The
+		 * segment is retained until the task has finished.  The task is
+		 * stamped with the current load generation; if a newer generation
+		 * has been requested before the task starts it does nothing, if one
+		 * is requested while loading the result is released without being
+		 * published.  Results are also discarded if the settings of the
+		 * analysis have changed while loading.
+		 *
+		 * @param segmentSound may be <code>null</code> in which case the task does nothing
+		 * @return load task
+		 */
+		public PhonTask loadTask(SegmentSound segmentSound) {
+			final long generation = loadGeneration.get();
+			final String key = (segmentSound != null ? createAnalysisKey(segmentSound, analysis) : null);
+			if(segmentSound != null)
+				segmentSound.retain();
+			return new PhonTask() {
+
+				@Override
+				public void performTask() {
+					super.setStatus(TaskStatus.RUNNING);
+
+					if(segmentSound == null) {
+						super.setStatus(TaskStatus.FINISHED);
+						return;
+					}
+
+					if(generation != loadGeneration.get()) {
+						segmentSound.release();
+						super.setStatus(TaskStatus.TERMINATED);
+						return;
+					}
+
+					try {
+						final T data = loader.apply(segmentSound);
+						if(generation == loadGeneration.get() && key.equals(createAnalysisKey(segmentSound, analysis))
+								&& analysisData.publish(generation, data, key)) {
+							invalidatePainter.run();
+						} else {
+							AnalysisSnapshot.dispose(data);
+						}
+					} catch (Exception e) {
+						LogUtil.warning(e);
+						super.err = e;
+						super.setStatus(TaskStatus.ERROR);
+						return;
+					} finally {
+						segmentSound.release();
+					}
 
-			updateLock.unlock();
+					super.setStatus(TaskStatus.FINISHED);
+				}
 
-			super.setStatus(TaskStatus.FINISHED);
+			};
 		}
 
 	}
 
-	private final LoadData<Spectrogram> spectrogramLoader = new LoadData<>(spectrogramRef, this::loadSpectrogram);
-	private final LoadData<Formant> formantLoader = new LoadData<>(formantRef, this::loadFormants);
-	private final LoadData<Pitch> pitchLoader = new LoadData<>(pitchRef, this::loadPitch);
-	private final LoadData<Intensity> intensityLoader = new LoadData<>(intensityRef, this::loadIntensity);
+	private final LoadData<TiledSpectrogram> spectrogramLoader = new LoadData<>(AnalysisType.SPECTROGRAM, spectrogramData,
+			() -> spectrogramPainter.setRepaintBuffer(true), this::loadSpectrogram);
+	private final LoadData<Formant> formantLoader = new LoadData<>(AnalysisType.FORMANT, formantData,
+			() -> formantPainter.setRepaintBuffer(true), this::loadFormants);
+	private final LoadData<Pitch> pitchLoader = new LoadData<>(AnalysisType.PITCH, pitchData,
+			() -> pitchPainter.setRepaintBuffer(true), this::loadPitch);
+	private final LoadData<Intensity> intensityLoader = new LoadData<>(AnalysisType.INTENSITY, intensityData,
+			() -> intensityPainter.setRepaintBuffer(true), this::loadIntensity);
+
+	/**
+	 * Run loader on the shared analysis executor.  The display is
+	 * updated as soon as the loaded data is available.
+	 *
+	 * @param loader
+	 * @param segmentSound
+	 * @return future which completes after data has been loaded
+	 */
+	private CompletableFuture<Void> scheduleLoad(LoadData<?> loader, SegmentSound segmentSound) {
+		return AnalysisExecutor.getInstance().submit(loader.getName(), loader.loadTask(segmentSound))
+				.thenRun( () -> SwingUtilities.invokeLater(updateTask) );
+	}
+
+	/**
+	 * Schedule loader unless the published data was computed for the given
+	 * segment using the current settings.
+	 *
+	 * @param loader
+	 * @param segmentSound
+	 * @return <code>true</code> if data is being loaded
+	 */
+	private boolean loadIfChanged(LoadData<?> loader, SegmentSound segmentSound) {
+		if(segmentSound != null
+				&& createAnalysisKey(segmentSound, loader.getAnalysis()).equals(loader.getAnalysisData().getKey())) {
+			SwingUtilities.invokeLater(updateTask);
+			return false;
+		}
+		scheduleLoad(loader, segmentSound);
+		return true;
+	}
+
+	/**
+	 * Called when a settings object has been replaced.  Painters of all
+	 * displayed analyses which depend on the settings are invalidated;
+	 * only analyses whose settings fingerprint changed are re-computed.
+	 * Display-only changes (e.g., spectrogram dynamic range or pitch dot
+	 * size) only repaint.
+	 *
+	 * @param changedSettings
+	 */
+	private void onSettingsChanged(AnalysisSettings changedSettings) {
+		final SegmentSound segmentSound = createSegmentSound();
+		final Set<AnalysisType> affected = AnalysisType.affectedBy(changedSettings);
+		for(LoadData<?> loader:List.of(spectrogramLoader, formantLoader, pitchLoader, intensityLoader)) {
+			if(!affected.contains(loader.getAnalysis()) || !isDisplayed(loader.getAnalysis())) continue;
+			loader.invalidatePainter();
+			loadIfChanged(loader, segmentSound);
+		}
+		SwingUtilities.invokeLater(updateTask);
+	}
+
+	private boolean isDisplayed(AnalysisType analysis) {
+		switch(analysis) {
+		case SPECTROGRAM:
+			return true;
+
+		case FORMANT:
+			return showFormants;
+
+		case PITCH:
+			return showPitch;
+
+		case INTENSITY:
+			return showIntensity;
+
+		default:
+			return false;
+		}
+	}
 
 	/**
 	 * Task used to update display.
@@ -1358,44 +2092,18 @@ public class SpectrogramView extends SpeechAnalysisTier {
 	};
 
 	private void cleanup() {
-		if(spectrogramRef.get() != null) {
-			try {
-				spectrogramRef.get().forget();
-			} catch (PraatException e) {
-				LogUtil.severe(e);
-			}
-		}
-		spectrogramRef.set(null);
+		final long generation = loadGeneration.get();
+
+		spectrogramData.clear(generation);
 		spectrogramPainter.setRepaintBuffer(true);
 
-		if(formantRef.get() != null) {
-			try {
-				formantRef.get().forget();
-			} catch (PraatException e) {
-				LogUtil.severe(e);
-			}
-		}
-		formantRef.set(null);
+		formantData.clear(generation);
 		formantPainter.setRepaintBuffer(true);
-		
-		if(pitchRef.get() != null) {
-			try {
-				pitchRef.get().forget();
-			} catch (PraatException e) {
-				LogUtil.severe(e);
-			}
-		}
-		pitchRef.set(null);
+
+		pitchData.clear(generation);
 		pitchPainter.setRepaintBuffer(true);
 
-		if(intensityRef.get() != null) {
-			try {
-				intensityRef.get().forget();
-			} catch (PraatException e) {
-				LogUtil.severe(e);
-			}
-		}
-		intensityRef.set(null);
+		intensityData.clear(generation);
 		intensityPainter.setRepaintBuffer(true);
 	}
 	
@@ -1404,6 +2112,8 @@ public class SpectrogramView extends SpeechAnalysisTier {
 	 *
 	 */
 	private void clearDisplay() {
+		// discard any in-flight loads
+		loadGeneration.incrementAndGet();
 		cleanup();
 
 		if(SwingUtilities.isEventDispatchThread())
@@ -1438,7 +2148,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 
 		if(len <= 0.0) return;
 
-		if(len > maxAnalysisLength && !forceLoadSpectrogram && !sameSegment) {
+		if(len > getMaxAnalysisLength() && !forceLoadSpectrogram && !sameSegment) {
 			lastStartTime = -1;
 			lastEndTime = -1;
 
@@ -1455,54 +2165,85 @@ public class SpectrogramView extends SpeechAnalysisTier {
 
 		SwingUtilities.invokeLater( () -> maxAnalysisMessage.setVisible(false) );
 
-		final PhonWorker worker = PhonWorker.createWorker();
-		worker.setName(SpectrogramView.class.getName()+".worker");
+		// prefetching for the previous segment is no longer useful
+		cancelPrefetch();
+
+		// supersede any loads still running for a previous segment
+		final long generation = loadGeneration.incrementAndGet();
+		final List<CompletableFuture<Void>> loads = new ArrayList<>();
+
+		// audio for the segment is extracted once and shared by all loaders
+		final SegmentSound segmentSound = createSegmentSound();
 
 		spectrogramPainter.setRepaintBuffer(true);
 		spectrogramPainter.setSettings(spectrogramSettings);
-		worker.invokeLater(spectrogramLoader);
+		loads.add(scheduleLoad(spectrogramLoader, segmentSound));
 
 		if(showFormants) {
 			formantPainter.setRepaintBuffer(true);
 			formantPainter.setSettings(formantSettings);
 			formantPainter.setMaxFrequency(spectrogramSettings.getMaxFrequency());
-			worker.invokeLater(formantLoader);
+			loads.add(scheduleLoad(formantLoader, segmentSound));
 		}
 
 		if(showPitch) {
 			pitchPainter.setRepaintBuffer(true);
 			pitchPainter.setSettings(pitchSettings);
-			worker.invokeLater(pitchLoader);
+			loads.add(scheduleLoad(pitchLoader, segmentSound));
 		}
 
 		if(showIntensity) {
 			intensityPainter.setRepaintBuffer(true);
 			intensityPainter.setSettings(intensitySettings);
-			worker.invokeLater(intensityLoader);
+			loads.add(scheduleLoad(intensityLoader, segmentSound));
 		}
 
-		worker.invokeLater( () -> { lastStartTime = startTime; lastEndTime = endTime; } );
-		worker.invokeLater( () -> SwingUtilities.invokeLater(updateTask) );
-
-		worker.setFinishWhenQueueEmpty(true);
-		worker.start();
+		CompletableFuture.allOf(loads.toArray(new CompletableFuture[0]))
+			.thenRun( () -> {
+				if(generation == loadGeneration.get()) {
+					lastStartTime = startTime;
+					lastEndTime = endTime;
+					SwingUtilities.invokeLater( () -> schedulePrefetch(generation) );
+				}
+			});
 	}
 
 	private class SpectrogramPanel extends TimeComponent {
 
 		private static final long serialVersionUID = 7940163213370438304L;
 
+		/* rendered viewport tiles, re-used while scrolling */
+		private final SpectrogramTileCache tileCache = new SpectrogramTileCache(spectrogramPainter);
+
 		public SpectrogramPanel() {
 			super(SpectrogramView.this.getTimeModel());
 			setFocusable(true);
 			
 			setUI(new TimeComponentUI());
+
+			tileCache.setInterpolate(interpolateSpectrogram);
 		}
 
 		@Override
 		public void paintComponent(Graphics g) {
-			final Graphics2D g2 = (Graphics2D)g;
+			// snapshots are held for the duration of painting, loaders may publish
+			// new data at any time without blocking the EDT
+			try(final AnalysisSnapshot<TiledSpectrogram> spectrogramSnapshot = spectrogramData.acquire();
+					final AnalysisSnapshot<Formant> formantSnapshot = (showFormants ? formantData.acquire() : null);
+					final AnalysisSnapshot<Pitch> pitchSnapshot = (showPitch ? pitchData.acquire() : null);
+					final AnalysisSnapshot<Intensity> intensitySnapshot = (showIntensity ? intensityData.acquire() : null)) {
+				paintSpectrogramView((Graphics2D)g,
+						(spectrogramSnapshot != null ? spectrogramSnapshot.get() : null),
+						(formantSnapshot != null ? formantSnapshot.get() : null),
+						(pitchSnapshot != null ? pitchSnapshot.get() : null),
+						(intensitySnapshot != null ? intensitySnapshot.get() : null));
+				refineVisibleAnalyses((spectrogramSnapshot != null ? spectrogramSnapshot.get() : null),
+						(pitchSnapshot != null ? pitchSnapshot.get() : null));
+			}
+		}
 
+		private void paintSpectrogramView(final Graphics2D g2, final TiledSpectrogram spectrogram,
+				final Formant formants, final Pitch pitch, final Intensity intensity) {
 			g2.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, 
 					RenderingHints.VALUE_FRACTIONALMETRICS_ON);
 			g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, 
@@ -1514,10 +2255,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 				g2.fill(g2.getClipBounds());
 			}
 			
-			spectrogramLoader.updateLock.lock();
-			Spectrogram spectrogram = spectrogramRef.get();
-			if(spectrogram == null) {
-				spectrogramLoader.updateLock.unlock();
+			if(spectrogram == null || spectrogram.getNy() == 0) {
 				return;
 			}
 						
@@ -1535,24 +2273,18 @@ public class SpectrogramView extends SpeechAnalysisTier {
 				return;
 			}
 
-			spectrogramPainter.paint(spectrogram, g2, contentRect);
+			tileCache.paint(spectrogram, g2, contentRect);
 
-			if(showFormants && formantRef.get() != null) {
-				formantLoader.updateLock.lock();
-				formantPainter.paint(formantRef.get(), g2, contentRect);
-				formantLoader.updateLock.unlock();
+			if(formants != null) {
+				formantPainter.paint(formants, g2, contentRect);
 			}
 
-			if(showPitch && pitchRef.get() != null) {
-				pitchLoader.updateLock.lock();
-				pitchPainter.paint(pitchRef.get(), g2, contentRect);
-				pitchLoader.updateLock.unlock();
+			if(pitch != null) {
+				pitchPainter.paint(pitch, g2, contentRect);
 			}
 
-			if(showIntensity && intensityRef.get() != null) {
-				intensityLoader.updateLock.lock();
-				intensityPainter.paint(intensityRef.get(), g2, contentRect);
-				intensityLoader.updateLock.unlock();
+			if(intensity != null) {
+				intensityPainter.paint(intensity, g2, contentRect);
 			}
 
 			final Stroke dashed = new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{2}, 0);
@@ -1570,9 +2302,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 				g2.setColor(Color.WHITE);
 				g2.draw(line);
 
-				if(showFormants && formantRef.get() != null) {
-					final Formant formants = formantRef.get();
-
+				if(formants != null) {
 					int x = (int)(getVisibleRect().x);
 					int y = (int)(contentRect.getCenterY() - ((g2.getFontMetrics().getHeight() * formantSettings.getNumFormants()) / 2.0));
 					for(int i = formantSettings.getNumFormants(); i > 0; i--) {
@@ -1602,8 +2332,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 					}
 				}
 
-				if(showPitch && pitchRef.get() != null && getParentView().getSelectionInterval() == null) {
-					final Pitch pitch = pitchRef.get();
+				if(pitch != null && getParentView().getSelectionInterval() == null) {
 					// get pitch at current x
 					double pitchVal = pitch.getValueAtX(cursorMarker.getTime(), Pitch.LEVEL_FREQUENCY,
 							pitchSettings.getUnits().ordinal(), true);
@@ -1626,8 +2355,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 					}
 				}
 
-				if(showIntensity && intensityRef.get() != null && getParentView().getSelectionInterval() == null) {
-					final Intensity intensity = intensityRef.get();
+				if(intensity != null && getParentView().getSelectionInterval() == null) {
 					double intensityVal = intensity.getValueAtX(cursorMarker.getTime(), 1, Intensity.UNITS_DB, true);
 
 					if(!Double.isInfinite(intensityVal) && !Double.isNaN(intensityVal)) {
@@ -1672,8 +2400,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 				g2.setColor(selectionInterval.getColor());
 				g2.fill(selRect);
 
-				if(showPitch && pitchRef.get() != null) {
-					final Pitch pitch = pitchRef.get();
+				if(pitch != null) {
 					// draw avg pitch
 					double pitchVal = pitch.getMean(startTime, endTime, Pitch.LEVEL_FREQUENCY,
 							pitchSettings.getUnits().ordinal(), true);
@@ -1696,8 +2423,7 @@ public class SpectrogramView extends SpeechAnalysisTier {
 					}
 				}
 
-				if(showIntensity && intensityRef.get() != null) {
-					final Intensity intensity = intensityRef.get();
+				if(intensity != null) {
 					double intensityVal = 0.0;
 					try {
 						intensityVal = intensity.getAverage(startTime, endTime, intensitySettings.getAveraging());
@@ -1756,23 +2482,16 @@ public class SpectrogramView extends SpeechAnalysisTier {
 					contentRect.getX()+contentRect.getWidth(), contentRect.getY(),
 					100.0, contentRect.getHeight());
 			if(spectrogram != null) {
-				spectrogramLoader.updateLock.lock();
 				spectrogramPainter.paintGarnish(spectrogram, g2, leftInsetRect, SwingConstants.LEFT);
-				spectrogramLoader.updateLock.unlock();
 			}
 
-			if(showPitch && pitchRef.get() != null) {
-				pitchLoader.updateLock.lock();
-				pitchPainter.paintGarnish(pitchRef.get(), g2, rightInsetRect, SwingConstants.RIGHT);
-				pitchLoader.updateLock.unlock();
+			if(pitch != null) {
+				pitchPainter.paintGarnish(pitch, g2, rightInsetRect, SwingConstants.RIGHT);
 			}
 
-			if(showIntensity && intensityRef.get() != null) {
-				intensityLoader.updateLock.lock();
-				intensityPainter.paintGarnish(intensityRef.get(), g2, rightInsetRect, SwingConstants.RIGHT);
-				intensityLoader.updateLock.unlock();
+			if(intensity != null) {
+				intensityPainter.paintGarnish(intensity, g2, rightInsetRect, SwingConstants.RIGHT);
 			}
-			spectrogramLoader.updateLock.unlock();
 		
 			for(var i:getTimeModel().getIntervals()) {
 				getUI().paintInterval(g2, i, false);
@@ -1813,6 +2532,18 @@ public class SpectrogramView extends SpeechAnalysisTier {
 		settingsAct.putValue(PhonUIAction.SHORT_DESCRIPTION, "Edit spectrogram settings...");
 		builder.addItem(".", settingsAct);
 
+		final PhonUIAction<Void> interpolateAct = PhonUIAction.runnable(this::onToggleInterpolateSpectrogram);
+		interpolateAct.putValue(PhonUIAction.NAME, "Smooth Spectrogram");
+		interpolateAct.putValue(PhonUIAction.SHORT_DESCRIPTION, "Paint spectrogram using bilinear interpolation");
+		interpolateAct.putValue(PhonUIAction.SELECTED_KEY, interpolateSpectrogram);
+		builder.addItem(".", new JCheckBoxMenuItem(interpolateAct));
+
+		final PhonUIAction<Void> adaptiveAct = PhonUIAction.runnable(this::onToggleAdaptiveResolution);
+		adaptiveAct.putValue(PhonUIAction.NAME, "Adaptive Resolution");
+		adaptiveAct.putValue(PhonUIAction.SHORT_DESCRIPTION, "Analyse at display resolution first, refine when zooming in");
+		adaptiveAct.putValue(PhonUIAction.SELECTED_KEY, adaptiveResolution);
+		builder.addItem(".", new JCheckBoxMenuItem(adaptiveAct));
+
 		builder.addSeparator(".", "s1");
 
 		final PhonUIAction<Void> durationAct = PhonUIAction.runnable(this::listDuration);
@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat;
+
+import ca.hedlund.jpraat.binding.fon.*;
+import ca.hedlund.jpraat.exceptions.PraatException;
+
+import java.util.*;
+import java.util.logging.*;
+
+/**
+ * Immutable copy of the contents of a {@link TextGrid}.  Interval
+ * and point times are held in sorted primitive arrays and labels are
+ * interned so that read-only consumers (e.g., painting and hit testing)
+ * do not need to call into the native TextGrid.
+ *
+ * Tier and interval indices are 1-based, as in Praat.  Edits must be
+ * made on the native TextGrid; use {@link #withTier(TextGrid, long)} to
+ * obtain a snapshot with only the modified tier re-read.
+ *
+ */
+public final class TextGridSnapshot {
+
+	private final static Logger LOGGER = Logger.getLogger(TextGridSnapshot.class.getName());
+
+	private final static TextGridSnapshot EMPTY = new TextGridSnapshot(0.0, 0.0, new Tier[0]);
+
+	private final double xmin;
+
+	private final double xmax;
+
+	private final Tier[] tiers;
+
+	private TextGridSnapshot(double xmin, double xmax, Tier[] tiers) {
+		super();
+		this.xmin = xmin;
+		this.xmax = xmax;
+		this.tiers = tiers;
+	}
+
+	/**
+	 * @return empty snapshot
+	 */
+	public static TextGridSnapshot empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Create snapshot of TextGrid.
+	 *
+	 * @param textGrid
+	 * @return snapshot, an empty snapshot if textGrid is <code>null</code>
+	 */
+	public static TextGridSnapshot of(TextGrid textGrid) {
+		if(textGrid == null) return EMPTY;
+
+		final Map<String, String> labels = new HashMap<>();
+		final Tier[] tiers = new Tier[(int)textGrid.numberOfTiers()];
+		for(int i = 0; i < tiers.length; i++) {
+			tiers[i] = readTier(textGrid, i + 1, labels);
+		}
+		return new TextGridSnapshot(textGrid.getXmin(), textGrid.getXmax(), tiers);
+	}
+
+	/**
+	 * Create a copy of this snapshot with the given tier re-read from
+	 * the TextGrid.  If the number of tiers has changed the
+	 * whole TextGrid is read.
+	 *
+	 * @param textGrid
+	 * @param tierIndex
+	 * @return updated snapshot
+	 */
+	public TextGridSnapshot withTier(TextGrid textGrid, long tierIndex) {
+		if(textGrid == null) return EMPTY;
+		if(textGrid.numberOfTiers() != tiers.length || tierIndex < 1 || tierIndex > tiers.length)
+			return of(textGrid);
+
+		final Tier[] newTiers = Arrays.copyOf(tiers, tiers.length);
+		newTiers[(int)tierIndex - 1] = readTier(textGrid, tierIndex, new HashMap<>());
+		return new TextGridSnapshot(textGrid.getXmin(), textGrid.getXmax(), newTiers);
+	}
+
+	private static Tier readTier(TextGrid textGrid, long tierIndex, Map<String, String> labels) {
+		final Function tier = textGrid.tier(tierIndex);
+		final String name = intern((tier.getName() != null ? tier.getName().toString() : ""), labels);
+		try {
+			return readIntervalTier(textGrid.checkSpecifiedTierIsIntervalTier(tierIndex), name, labels);
+		} catch (PraatException pe) {
+			try {
+				return readPointTier(textGrid.checkSpecifiedTierIsPointTier(tierIndex), name, labels);
+			} catch (PraatException pe1) {
+				LOGGER.log(Level.SEVERE, pe1.getLocalizedMessage(), pe1);
+				return new Tier(name, false, tier.getXmin(), tier.getXmax(), new double[0], new double[0], new String[0]);
+			}
+		}
+	}
+
+	/**
+	 * Create snapshot of a single interval or point tier.
+	 *
+	 * @param tier
+	 * @return tier snapshot, an empty point tier if tier is neither an
+	 *  interval nor a point tier
+	 */
+	public static Tier tierOf(Function tier) {
+		final Map<String, String> labels = new HashMap<>();
+		final String name = intern((tier.getName() != null ? tier.getName().toString() : ""), labels);
+		if(tier instanceof IntervalTier) {
+			return readIntervalTier((IntervalTier)tier, name, labels);
+		} else if(tier instanceof TextTier) {
+			return readPointTier((TextTier)tier, name, labels);
+		}
+		return new Tier(name, false, tier.getXmin(), tier.getXmax(), new double[0], new double[0], new String[0]);
+	}
+
+	private static Tier readIntervalTier(IntervalTier intervalTier, String name, Map<String, String> labels) {
+		final int size = (int)intervalTier.numberOfIntervals();
+		final double[] startTimes = new double[size];
+		final double[] endTimes = new double[size];
+		final String[] texts = new String[size];
+		for(int i = 0; i < size; i++) {
+			final TextInterval interval = intervalTier.interval(i + 1);
+			startTimes[i] = interval.getXmin();
+			endTimes[i] = interval.getXmax();
+			texts[i] = intern(interval.getText(), labels);
+		}
+		return new Tier(name, true, intervalTier.getXmin(), intervalTier.getXmax(), startTimes, endTimes, texts);
+	}
+
+	private static Tier readPointTier(TextTier pointTier, String name, Map<String, String> labels) {
+		final int size = (int)pointTier.numberOfPoints();
+		final double[] times = new double[size];
+		final String[] texts = new String[size];
+		for(int i = 0; i < size; i++) {
+			final TextPoint point = pointTier.point(i + 1);
+			times[i] = point.getNumber();
+			texts[i] = intern(point.getText(), labels);
+		}
+		return new Tier(name, false, pointTier.getXmin(), pointTier.getXmax(), times, times, texts);
+	}
+
+	private static String intern(String text, Map<String, String> labels) {
+		final String value = (text != null ? text : "");
+		final String existing = labels.putIfAbsent(value, value);
+		return (existing != null ? existing : value);
+	}
+
+	public double getXmin() {
+		return xmin;
+	}
+
+	public double getXmax() {
+		return xmax;
+	}
+
+	public long numberOfTiers() {
+		return tiers.length;
+	}
+
+	/**
+	 * @param tierIndex 1-based index
+	 * @return tier
+	 */
+	public Tier tier(long tierIndex) {
+		return tiers[(int)tierIndex - 1];
+	}
+
+	/**
+	 * @param tierName
+	 * @return 1-based index of tier or -1 if not found
+	 */
+	public int indexOfTier(String tierName) {
+		for(int i = 0; i < tiers.length; i++) {
+			if(tiers[i].getName().equals(tierName)) return i + 1;
+		}
+		return -1;
+	}
+
+	/**
+	 * Interval or point tier.  For point tiers start and end
+	 * times are the point time.
+	 */
+	public final static class Tier {
+
+		private final String name;
+
+		private final boolean intervalTier;
+
+		private final double xmin;
+
+		private final double xmax;
+
+		private final double[] startTimes;
+
+		private final double[] endTimes;
+
+		private final String[] texts;
+
+		private Tier(String name, boolean intervalTier, double xmin, double xmax,
+				double[] startTimes, double[] endTimes, String[] texts) {
+			super();
+			this.name = name;
+			this.intervalTier = intervalTier;
+			this.xmin = xmin;
+			this.xmax = xmax;
+			this.startTimes = startTimes;
+			this.endTimes = endTimes;
+			this.texts = texts;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public boolean isIntervalTier() {
+			return intervalTier;
+		}
+
+		public boolean isPointTier() {
+			return !intervalTier;
+		}
+
+		public double getXmin() {
+			return xmin;
+		}
+
+		public double getXmax() {
+			return xmax;
+		}
+
+		/**
+		 * @return number of intervals or points
+		 */
+		public long size() {
+			return texts.length;
+		}
+
+		/**
+		 * @param index 1-based index of interval or point
+		 * @return start time
+		 */
+		public double getStartTime(long index) {
+			return startTimes[(int)index - 1];
+		}
+
+		/**
+		 * @param index 1-based index of interval or point
+		 * @return end time
+		 */
+		public double getEndTime(long index) {
+			return endTimes[(int)index - 1];
+		}
+
+		/**
+		 * @param index 1-based index of interval or point
+		 * @return label
+		 */
+		public String getText(long index) {
+			return texts[(int)index - 1];
+		}
+
+	}
+
+}
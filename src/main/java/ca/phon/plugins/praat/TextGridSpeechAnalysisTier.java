@@ -162,26 +162,28 @@ public class TextGridSpeechAnalysisTier extends SpeechAnalysisTier {
 			
 			@Override
 			public void tierLabelClicked(TextGrid textGrid, Long tierIdx, MouseEvent me) {
-				String tierName = textGrid.tier(tierIdx).getName();
+				String tierName = textGridView.getTextGridSnapshot().tier(tierIdx).getName();
 				showTierMenu(tierName, me);
 			}
 			
 			@Override
 			public void intervalSelected(TextGrid textGrid, Tuple<Long, Long> intervalIndex) {
-				try {
-					IntervalTier intervalTier = tg.checkSpecifiedTierIsIntervalTier(intervalIndex.getObj1());
-					TextInterval textInterval = intervalTier.interval(intervalIndex.getObj2());
-					
-					getParentView().setSelection((float)textInterval.getXmin(), (float)textInterval.getXmax());
-				} catch (PraatException e) {
-					LogUtil.severe(e);
-				}
+				final TextGridSnapshot.Tier tier = textGridView.getTextGridSnapshot().tier(intervalIndex.getObj1());
+				if(!tier.isIntervalTier()) return;
+				getParentView().setSelection((float)tier.getStartTime(intervalIndex.getObj2()),
+						(float)tier.getEndTime(intervalIndex.getObj2()));
 			}
 			
 		} );
 
 		textGridView.addMouseListener(getParentView().getContextMenuAdapter());
 
+		// only repaint the strip under the playback cursor as it moves
+		getParentView().getCursorMarker().addPropertyChangeListener("time", (e) -> {
+			if(e.getOldValue() instanceof Number) textGridView.repaintTime(((Number)e.getOldValue()).floatValue());
+			if(e.getNewValue() instanceof Number) textGridView.repaintTime(((Number)e.getNewValue()).floatValue());
+		});
+
 		this.addPropertyChangeListener("fontSizeDelta", e -> {
 			PrefHelper.getUserPreferences().putFloat(FONT_SIZE_DELTA_PROP, getFontSizeDelta());
 			update();
@@ -216,6 +218,8 @@ public class TextGridSpeechAnalysisTier extends SpeechAnalysisTier {
 	private void cleanup() {
 		if(this.tg != null) {
 			try {
+				NativeMemoryRegistry.getInstance().untrack(this.tg);
+				NativeLeakDetector.getInstance().released(this.tg);
 				this.tg.close();
 				this.tg = null;
 			} catch (Exception e) {
@@ -232,7 +236,7 @@ public class TextGridSpeechAnalysisTier extends SpeechAnalysisTier {
 				tgManager.defaultTextGridFile(parent.getEditor().getSession());
 		if(defaultTextGridFile.isPresent()) {
 			try {
-				final TextGrid tg = TextGridManager.loadTextGrid(defaultTextGridFile.get());
+				final TextGrid tg = NativeLeakDetector.getInstance().allocated(TextGridManager.loadTextGrid(defaultTextGridFile.get()));
 				currentTextGridFile = defaultTextGridFile.get();
 				setTextGrid(tg);
 			} catch (IOException e) {
@@ -300,6 +304,11 @@ public class TextGridSpeechAnalysisTier extends SpeechAnalysisTier {
 		
 		this.tg = tg;
 		textGridView.setTextGrid(this.tg);
+		if(oldTextGrid != null) {
+			NativeMemoryRegistry.getInstance().untrack(oldTextGrid);
+			NativeLeakDetector.getInstance().released(oldTextGrid);
+		}
+		NativeMemoryRegistry.getInstance().track(this.tg);
 		
 		updateHiddenTiers();
 		updateTierFonts();
@@ -323,6 +332,16 @@ public class TextGridSpeechAnalysisTier extends SpeechAnalysisTier {
 		return this.tg;
 	}
 
+	/**
+	 * Notify this tier that the current TextGrid has been modified in
+	 * place (e.g., tiers removed or renamed) so that the display is
+	 * updated.
+	 */
+	public void textGridChanged() {
+		textGridView.textGridChanged();
+		update();
+	}
+
 	@Override
 	public void setEnabled(boolean enabled) {
 		super.setEnabled(enabled);
@@ -488,7 +507,7 @@ public class TextGridSpeechAnalysisTier extends SpeechAnalysisTier {
 	 */
 	public void showTextGrid(File textGridFile) {
 		try {
-			final TextGrid textGrid = TextGridManager.loadTextGrid(textGridFile);
+			final TextGrid textGrid = NativeLeakDetector.getInstance().allocated(TextGridManager.loadTextGrid(textGridFile));
 			if(textGrid != null) {
 				currentTextGridFile = textGridFile;
 				setTextGrid(textGrid);
@@ -646,7 +665,7 @@ public class TextGridSpeechAnalysisTier extends SpeechAnalysisTier {
 
 		// load TextGrid
 		try {
-			final TextGrid tg = TextGridManager.loadTextGrid(file);
+			final TextGrid tg = NativeLeakDetector.getInstance().allocated(TextGridManager.loadTextGrid(file));
 			currentTextGridFile = file;
 			setTextGrid(tg);
 		} catch (IOException e) {
@@ -1091,12 +1110,11 @@ public class TextGridSpeechAnalysisTier extends SpeechAnalysisTier {
 
 	public List<String> getVisibleTiers() {
 		final List<String> visibleTiers = new ArrayList<>();
-		if(tg != null) {
-			for(long i = 1; i <= tg.numberOfTiers(); i++) {
-				final Function tier = tg.tier(i);
-				if(textGridView.isTierVisible(tier.getName())) {
-					visibleTiers.add(tier.getName());
-				}
+		final TextGridSnapshot snapshot = textGridView.getTextGridSnapshot();
+		for(long i = 1; i <= snapshot.numberOfTiers(); i++) {
+			final TextGridSnapshot.Tier tier = snapshot.tier(i);
+			if(textGridView.isTierVisible(tier.getName())) {
+				visibleTiers.add(tier.getName());
 			}
 		}
 
@@ -1130,11 +1148,13 @@ public class TextGridSpeechAnalysisTier extends SpeechAnalysisTier {
 		}
 		
 		Function tier = null;
+		long tierIdx = 0;
 		final TextGrid textGrid = getTextGrid();
 		for(int i = 1; i <= textGrid.numberOfTiers(); i++) {
 			final Function currentTier = textGrid.tier(i);
 			if(currentTier.getName().equals(tierName)) {
 				tier = currentTier;
+				tierIdx = i;
 			} else {
 				if(currentTier.getName().equals(newName)) {
 					// bail, name already used
@@ -1147,7 +1167,7 @@ public class TextGridSpeechAnalysisTier extends SpeechAnalysisTier {
 			tier.setName(newName);
 			saveTextGrid();
 			
-			textGridView.repaint();
+			textGridView.tierChanged(tierIdx);
 			return true;
 		}
 		return false;
@@ -1261,69 +1281,91 @@ public class TextGridSpeechAnalysisTier extends SpeechAnalysisTier {
 					waitForEndOfChanges(5 * (10 * (retryCount + 1)));
 
 					// test reading, writing, then reading again the TextGrid file
-					TextGrid tg = Daata.readFromFile(TextGrid.class, MelderFile.fromPath(textGridFile.getAbsolutePath()));
-					File testFile = File.createTempFile("phon", "-temp.TextGrid");
-					TextGridManager.saveTextGrid(tg, testFile);
-					TextGrid tg2 = Daata.readFromFile(TextGrid.class, MelderFile.fromPath(testFile.getAbsolutePath()));
-
-					// ensure that tg and tg2 both have the same number of tiers and intervals/points within tiers
-					if(tg2.numberOfTiers() != tg.numberOfTiers()) {
-						throw new IOException(String.format("Round-trip test failure - number of tiers %d != %d",
-								tg.numberOfTiers(), tg2.numberOfTiers()));
-					} else {
-						for(long i = 1; i < tg.numberOfTiers(); i++) {
-							try {
-								IntervalTier t1 = tg.checkSpecifiedTierIsIntervalTier(i);
-								IntervalTier t2 = tg2.checkSpecifiedTierIsIntervalTier(i);
-
-								if(t1.numberOfIntervals() != t2.numberOfIntervals()) {
-									throw new IOException(String.format("Round-trip test failure - number of intervals for tier %d, %d != %d",
-											i, t1.numberOfIntervals(), t2.numberOfIntervals()));
-								}
-								if(!t1.getName().equals(t2.getName())) {
-									throw new IOException(String.format("Round-trip test failure - tier name mismatch for tier %d, %s != %s",
-											i, t1.getName(), t2.getName()));
-								}
-							} catch (PraatException pe) {
-								try {
-									TextTier t1 = tg.checkSpecifiedTierIsPointTier(i);
-									TextTier t2 = tg.checkSpecifiedTierIsPointTier(i);
-
-									if(t1.numberOfPoints() != t2.numberOfPoints()) {
-										throw new IOException(String.format("Round-trip test failure - number of points for tier %d, %d != %d",
-												i, t1.numberOfPoints(), t2.numberOfPoints()));
-									}
-									if(!t1.getName().equals(t2.getName())) {
-										throw new IOException(String.format("Round-trip test failure - tier name mismatch for tier %d, %s != %s",
-												i, t1.getName(), t2.getName()));
+					TextGrid tg = NativeLeakDetector.getInstance().allocated(
+							Daata.readFromFile(TextGrid.class, MelderFile.fromPath(textGridFile.getAbsolutePath())));
+					boolean verified = false;
+					try {
+						File testFile = File.createTempFile("phon", "-temp.TextGrid");
+						TextGridManager.saveTextGrid(tg, testFile);
+						final TextGrid tg2 = Daata.readFromFile(TextGrid.class, MelderFile.fromPath(testFile.getAbsolutePath()));
+						try {
+							// ensure that tg and tg2 both have the same number of tiers and intervals/points within tiers
+							if(tg2.numberOfTiers() != tg.numberOfTiers()) {
+								throw new IOException(String.format("Round-trip test failure - number of tiers %d != %d",
+										tg.numberOfTiers(), tg2.numberOfTiers()));
+							} else {
+								for(long i = 1; i < tg.numberOfTiers(); i++) {
+									try {
+										IntervalTier t1 = tg.checkSpecifiedTierIsIntervalTier(i);
+										IntervalTier t2 = tg2.checkSpecifiedTierIsIntervalTier(i);
+
+										if(t1.numberOfIntervals() != t2.numberOfIntervals()) {
+											throw new IOException(String.format("Round-trip test failure - number of intervals for tier %d, %d != %d",
+													i, t1.numberOfIntervals(), t2.numberOfIntervals()));
+										}
+										if(!t1.getName().equals(t2.getName())) {
+											throw new IOException(String.format("Round-trip test failure - tier name mismatch for tier %d, %s != %s",
+													i, t1.getName(), t2.getName()));
+										}
+									} catch (PraatException pe) {
+										try {
+											TextTier t1 = tg.checkSpecifiedTierIsPointTier(i);
+											TextTier t2 = tg2.checkSpecifiedTierIsPointTier(i);
+
+											if(t1.numberOfPoints() != t2.numberOfPoints()) {
+												throw new IOException(String.format("Round-trip test failure - number of points for tier %d, %d != %d",
+														i, t1.numberOfPoints(), t2.numberOfPoints()));
+											}
+											if(!t1.getName().equals(t2.getName())) {
+												throw new IOException(String.format("Round-trip test failure - tier name mismatch for tier %d, %s != %s",
+														i, t1.getName(), t2.getName()));
+											}
+										} catch (PraatException innerPe) {
+											throw innerPe;
+										}
 									}
-								} catch (PraatException innerPe) {
-									throw innerPe;
 								}
 							}
+						} finally {
+							try {
+								tg2.close();
+							} catch (Exception e) {
+								LogUtil.warning(e);
+							}
+							FileUtils.deleteQuietly(testFile);
 						}
-					}
 
-					File backupFile = new File(lockInfo.getObj1().getParentFile(),
-							FilenameUtils.removeExtension(lockInfo.getObj1().getName()) + "-backup.TextGrid");
-					if (backupFile.exists()) {
-						FileUtils.deleteQuietly(backupFile);
-					}
+						File backupFile = new File(lockInfo.getObj1().getParentFile(),
+								FilenameUtils.removeExtension(lockInfo.getObj1().getName()) + "-backup.TextGrid");
+						if (backupFile.exists()) {
+							FileUtils.deleteQuietly(backupFile);
+						}
 
-					if (lockInfo.getObj1().exists() && PrefHelper.getBoolean(SessionEditor.BACKUP_WHEN_SAVING, true)) {
-						// add TextGrid to backup .zip
-						try {
-							backupTextGrid(lockInfo.getObj1());
-						} catch (IOException e) {
-							LogUtil.severe("Could not backup TextGrid: " + e.getLocalizedMessage());
+						if (lockInfo.getObj1().exists() && PrefHelper.getBoolean(SessionEditor.BACKUP_WHEN_SAVING, true)) {
+							// add TextGrid to backup .zip
+							try {
+								backupTextGrid(lockInfo.getObj1());
+							} catch (IOException e) {
+								LogUtil.severe("Could not backup TextGrid: " + e.getLocalizedMessage());
+							}
 						}
-					}
 
-					// create backup and move over praat data
-					FileUtils.moveFile(lockInfo.getObj1(), backupFile);
-					FileUtils.copyFile(textGridFile, lockInfo.getObj1());
+						// create backup and move over praat data
+						FileUtils.moveFile(lockInfo.getObj1(), backupFile);
+						FileUtils.copyFile(textGridFile, lockInfo.getObj1());
 
-					return tg;
+						verified = true;
+						return tg;
+					} finally {
+						if(!verified) {
+							NativeLeakDetector.getInstance().released(tg);
+							try {
+								tg.close();
+							} catch (Exception e) {
+								LogUtil.warning(e);
+							}
+						}
+					}
 				} catch (PraatException | IOException e) {
 					CommonModuleFrame.getCurrentFrame().showErrorMessage("Unable to update TextGrid: " + e.getLocalizedMessage());
 					lastErr = e;
@@ -1349,6 +1391,13 @@ public class TextGridSpeechAnalysisTier extends SpeechAnalysisTier {
 
 				if(tg != null && currentTextGridFile.equals(lockInfo.getObj1())) {
 					setTextGrid(tg);
+				} else if(tg != null) {
+					NativeLeakDetector.getInstance().released(tg);
+					try {
+						tg.forget();
+					} catch (Exception e) {
+						LogUtil.severe(e);
+					}
 				}
 			} catch (InterruptedException | ExecutionException e) {
 				LogUtil.severe(e);
@@ -213,7 +213,7 @@ public class TextGridTierViewPanel extends JPanel {
 					((TextGridTableModel)tierViewTable.getModel()).fireTableCellUpdated(selectedRow, 1);
 
 					parentView.saveTextGrid();
-					parentView.setTextGrid(parentView.getTextGrid());
+					parentView.textGridChanged();
 				}
 			}
 		}
@@ -323,8 +323,7 @@ public class TextGridTierViewPanel extends JPanel {
 					((TextGridTableModel)tierViewTable.getModel()).fireTableRowsDeleted(selectedRow, selectedRow);
 
 					parentView.saveTextGrid();
-					parentView.revalidate();
-					parentView.repaint();
+					parentView.textGridChanged();
 				} catch (PraatException e) {
 					Toolkit.getDefaultToolkit().beep();
 					LOGGER.log(Level.SEVERE, e.getLocalizedMessage(), e);
@@ -408,8 +407,7 @@ public class TextGridTierViewPanel extends JPanel {
 					if(TextGridUtils.tierNumberFromName(parentView.getTextGrid(), newName) <= 0) {
 						tier.setName(newName);
 						parentView.saveTextGrid();
-						parentView.revalidate();
-						parentView.repaint();
+						parentView.textGridChanged();
 					}
 				}
 			}
@@ -17,6 +17,8 @@ public class TextGridView extends TimeComponent {
 
 	private TextGrid textGrid;
 
+	private TextGridSnapshot textGridSnapshot = TextGridSnapshot.empty();
+
 	private boolean showLabels = true;
 	
 	private Map<String, Color> tierColorMap = new LinkedHashMap<String, Color>();
@@ -24,6 +26,9 @@ public class TextGridView extends TimeComponent {
 	private Map<String, Font> tierFontMap = new LinkedHashMap<String, Font>();
 	
 	public final static Color DEFAULT_TIER_LABEL_COLOR = new Color(255, 255, 0);
+
+	/* Half width in pixels of the area repainted around a time */
+	private final static int TIME_REPAINT_MARGIN = 4;
 	
 	private Map<String, Boolean> tierVisibilityMap = new LinkedHashMap<String, Boolean>();
 	
@@ -45,6 +50,7 @@ public class TextGridView extends TimeComponent {
 		super(timeModel);
 		
 		this.textGrid = textGrid;
+		this.textGridSnapshot = createSnapshot(textGrid);
 		
 		setOpaque(true);
 		setBackground(Color.white);
@@ -95,14 +101,7 @@ public class TextGridView extends TimeComponent {
 	}
 	
 	public int indexOfTier(String tierName) {
-		if(textGrid == null) return -1;
-		
-		for(long i = 1; i <= textGrid.numberOfTiers(); i++) {
-			if(textGrid.tier(i).getName().contentEquals(tierName)) {
-				return (int)i;
-			}
-		}
-		return -1;
+		return textGridSnapshot.indexOfTier(tierName);
 	}
 	
 	public TextGrid getTextGrid() {
@@ -112,8 +111,62 @@ public class TextGridView extends TimeComponent {
 	public void setTextGrid(TextGrid textGrid) {
 		var oldVal = this.textGrid;
 		this.textGrid = textGrid;
+		this.textGridSnapshot = createSnapshot(textGrid);
 		super.firePropertyChange("textGrid", oldVal, textGrid);
 	}
+
+	/**
+	 * Read-only copy of the current TextGrid used for painting and hit testing.
+	 *
+	 * @return snapshot of TextGrid, never <code>null</code>
+	 */
+	public TextGridSnapshot getTextGridSnapshot() {
+		return this.textGridSnapshot;
+	}
+
+	/**
+	 * Notify view that the given tier of the TextGrid has been modified.
+	 * Only the modified tier is re-read.
+	 *
+	 * @param tierIndex 1-based index of tier
+	 */
+	public void tierChanged(long tierIndex) {
+		var oldVal = this.textGridSnapshot;
+		this.textGridSnapshot = (textGrid != null && textGrid.getPointer() != Pointer.NULL
+				? oldVal.withTier(textGrid, tierIndex) : TextGridSnapshot.empty());
+		super.firePropertyChange("textGridSnapshot", oldVal, textGridSnapshot);
+		revalidate();
+		repaint();
+	}
+
+	/**
+	 * Notify view that the TextGrid has been modified in place (e.g.,
+	 * tiers added, removed or renamed.)  The whole TextGrid is re-read.
+	 */
+	public void textGridChanged() {
+		var oldVal = this.textGridSnapshot;
+		this.textGridSnapshot = createSnapshot(textGrid);
+		super.firePropertyChange("textGridSnapshot", oldVal, textGridSnapshot);
+		revalidate();
+		repaint();
+	}
+
+	private static TextGridSnapshot createSnapshot(TextGrid textGrid) {
+		return (textGrid != null && textGrid.getPointer() != Pointer.NULL
+				? TextGridSnapshot.of(textGrid) : TextGridSnapshot.empty());
+	}
+	
+	/**
+	 * Repaint the vertical strip of the view at the given time, e.g.,
+	 * the old or new position of a moving marker.  Tier content is
+	 * copied from the cached tier image; only overlays are re-painted.
+	 *
+	 * @param time
+	 */
+	public void repaintTime(float time) {
+		final int x = (int)Math.round(xForTime(time));
+		repaint(x - TIME_REPAINT_MARGIN, 0, 2 * TIME_REPAINT_MARGIN + 1, getHeight());
+	}
 	
 	public boolean isTierVisible(String tierName) {
 		Boolean visible = tierVisibilityMap.get(tierName);
@@ -148,10 +201,8 @@ public class TextGridView extends TimeComponent {
 	public int getVisibleTierCount() {
 		int retVal = 0;
 		
-		if(textGrid != null && textGrid.getPointer() != Pointer.NULL) {
-			for(long i = 1; i <= textGrid.numberOfTiers(); i++) {
-				if(isTierVisible(textGrid.tier(i).getName())) ++retVal;
-			}
+		for(long i = 1; i <= textGridSnapshot.numberOfTiers(); i++) {
+			if(isTierVisible(textGridSnapshot.tier(i).getName())) ++retVal;
 		}
 		return retVal;
 	}
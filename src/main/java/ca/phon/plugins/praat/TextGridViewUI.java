@@ -1,35 +1,100 @@
 package ca.phon.plugins.praat;
 
-import ca.hedlund.jpraat.binding.fon.*;
-import ca.hedlund.jpraat.exceptions.PraatException;
-import ca.phon.app.log.LogUtil;
 import ca.phon.media.TimeComponentUI;
+import ca.phon.plugins.praat.painters.TextGridLabelRenderer;
 import ca.phon.ui.fonts.FontPreferences;
+import ca.phon.util.PrefHelper;
 import ca.phon.util.Tuple;
-import com.github.davidmoten.rtree.RTree;
-import com.github.davidmoten.rtree.geometry.Geometries;
 
 import javax.swing.*;
 import javax.swing.event.MouseInputAdapter;
 import java.awt.*;
 import java.awt.event.MouseEvent;
+import java.awt.font.FontRenderContext;
+import java.beans.*;
 import java.awt.geom.*;
+import java.awt.image.BufferedImage;
 import java.util.List;
 import java.util.*;
+import java.util.function.LongToDoubleFunction;
 
 public class TextGridViewUI extends TimeComponentUI {
 		
 	private final static Insets labelInsets = new Insets(5, 3, 5, 3);
 
+	/* Points within this distance (in pixels) of the visible area are painted as their labels may be visible */
+	private final static double POINT_LABEL_MARGIN = 200.0;
+
+	/**
+	 * Minimum average number of pixels per visible interval (or point) for
+	 * tiers to be painted in full detail.  Below this value boundaries
+	 * are painted as a density strip and labels are not painted.
+	 */
+	public final static String LOD_THRESHOLD_PROP = TextGridViewUI.class.getName() + ".lodThreshold";
+	public final static double DEFAULT_LOD_THRESHOLD = 3.0;
+
+	/* Number of boundaries in a pixel column at which the density strip is fully opaque */
+	private final static int DENSITY_SATURATION = 8;
+
+	private final static Color[] DENSITY_COLORS = new Color[DENSITY_SATURATION + 1];
+	static {
+		for(int i = 1; i <= DENSITY_SATURATION; i++) {
+			DENSITY_COLORS[i] = new Color(64, 64, 64, 96 + (159 * i) / DENSITY_SATURATION);
+		}
+	}
+
 	private TextGridView tgView;
 	
 	private JLabel label;
-	
-	private RTree<Long, com.github.davidmoten.rtree.geometry.Rectangle> tierLabelTree;
-	
-	private RTree<Tuple<Long, Long>, com.github.davidmoten.rtree.geometry.Rectangle> intervalTree;
-	
-	private RTree<String, com.github.davidmoten.rtree.geometry.Rectangle> messageTree;
+
+	private final TextGridLabelRenderer labelRenderer = new TextGridLabelRenderer();
+
+	private final double lodThreshold = PrefHelper.getDouble(LOD_THRESHOLD_PROP, DEFAULT_LOD_THRESHOLD);
+
+	/* font render context of last paint, used to measure labels for tooltips */
+	private FontRenderContext labelFrc;
+
+	/*
+	 * Tier layout indexed by tier index - 1, rebuilt when the TextGrid,
+	 * tier visibility or fonts change.  Hit testing uses the layout
+	 * to find the tier and a binary search of the tier to find the interval.
+	 */
+	private TextGridSnapshot layoutSnapshot;
+
+	private boolean layoutValid = false;
+
+	private int[] tierYs = new int[0];
+
+	private int[] tierHeights = new int[0];
+
+	private boolean[] tierVisible = new boolean[0];
+
+	/* size of tier labels, updated when painted */
+	private double[] tierLabelWidths = new double[0];
+
+	private double[] tierLabelHeights = new double[0];
+
+	/*
+	 * Image of tier content for the visible area.  Selection, markers
+	 * and other time model overlays are painted over the image so that
+	 * changes to these only require the image to be copied.
+	 */
+	private BufferedImage tierImage;
+
+	private boolean tierImageValid = false;
+
+	private TextGridSnapshot tierImageSnapshot;
+
+	private Rectangle tierImageRect;
+
+	private double tierImageScaleX;
+
+	private double tierImageScaleY;
+
+	/* x for times 0 and 1, the image is repainted when the time scale changes */
+	private double tierImageX0;
+
+	private double tierImageX1;
 	
 	public TextGridViewUI() {
 		super();
@@ -45,6 +110,8 @@ public class TextGridViewUI extends TimeComponentUI {
 		
 		tgView.addMouseListener(mouseListener);
 		tgView.addMouseMotionListener(mouseListener);
+		tgView.addPropertyChangeListener(layoutListener);
+		layoutValid = false;
 	}
 
 	@Override
@@ -53,6 +120,52 @@ public class TextGridViewUI extends TimeComponentUI {
 		
 		tgView.removeMouseListener(mouseListener);
 		tgView.removeMouseMotionListener(mouseListener);
+		tgView.removePropertyChangeListener(layoutListener);
+		tierImage = null;
+		tierImageValid = false;
+	}
+
+	private final PropertyChangeListener layoutListener = (e) -> {
+		final String propName = e.getPropertyName();
+		if(propName == null) {
+			// unspecified property, assume everything changed
+			layoutValid = false;
+			tierImageValid = false;
+		} else if("textGrid".equals(propName) || "textGridSnapshot".equals(propName) || "font".equals(propName)
+				|| propName.endsWith(".visible") || propName.endsWith(".font")) {
+			layoutValid = false;
+			tierImageValid = false;
+		} else if("showLabels".equals(propName) || "background".equals(propName) || "opaque".equals(propName)
+				|| propName.endsWith(".labelBackground")) {
+			tierImageValid = false;
+		}
+	};
+
+	/**
+	 * Update tier layout if necessary.
+	 */
+	private void ensureLayout() {
+		final TextGridSnapshot tg = tgView.getTextGridSnapshot();
+		if(layoutValid && layoutSnapshot == tg) return;
+
+		final int numTiers = (int)tg.numberOfTiers();
+		if(tierYs.length != numTiers) {
+			tierYs = new int[numTiers];
+			tierHeights = new int[numTiers];
+			tierVisible = new boolean[numTiers];
+			tierLabelWidths = new double[numTiers];
+			tierLabelHeights = new double[numTiers];
+		}
+		int y = 0;
+		for(int i = 0; i < numTiers; i++) {
+			final String tierName = tg.tier(i + 1).getName();
+			tierYs[i] = y;
+			tierHeights[i] = getTierHeight(tierName);
+			tierVisible[i] = tgView.isTierVisible(tierName);
+			y += tierHeights[i];
+		}
+		layoutSnapshot = tg;
+		layoutValid = true;
 	}
 	
 	private JLabel getLabel() {
@@ -68,16 +181,12 @@ public class TextGridViewUI extends TimeComponentUI {
 	}
 
 	public int getTierY(String tierName) {
-		int y = 0;
-		for(long i = 1; i <= tgView.getTextGrid().numberOfTiers(); i++) {
-			Function tier = tgView.getTextGrid().tier(i);
+		ensureLayout();
+		final int tierIdx = layoutSnapshot.indexOfTier(tierName);
+		if(tierIdx > 0) return tierYs[tierIdx - 1];
 
-			if(tier.getName().equals(tierName)) {
-				break;
-			} else {
-				y += getTierHeight(tier.getName());
-			}
-		}
+		int y = 0;
+		for(int i = 0; i < tierHeights.length; i++) y += tierHeights[i];
 		return y;
 	}
 	
@@ -108,11 +217,11 @@ public class TextGridViewUI extends TimeComponentUI {
 		int numTiers = tgView.getVisibleTierCount();
 		int prefWidth = getTimeComponent().getTimeModel().getPreferredWidth();
 		int prefHeight = 0;
-		if(tgView.getTextGrid() != null && numTiers > 0) {
-			for (long i = 1; i <= tgView.getTextGrid().numberOfTiers(); i++) {
-				Function tier = tgView.getTextGrid().tier(i);
-				if(tgView.isTierVisible(tier.getName())) {
-					prefHeight += getTierHeight(tier.getName());
+		if(numTiers > 0) {
+			ensureLayout();
+			for (int i = 0; i < tierHeights.length; i++) {
+				if(tierVisible[i]) {
+					prefHeight += tierHeights[i];
 				}
 			}
 		}
@@ -122,58 +231,21 @@ public class TextGridViewUI extends TimeComponentUI {
 
 	@Override
 	public void paint(Graphics g, JComponent c) {
-		intervalTree = RTree.create();
-		messageTree = RTree.create();
-		tierLabelTree = RTree.create();
-		
+		ensureLayout();
+
 		Graphics2D g2d = (Graphics2D)g;
 		g2d.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
 		g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		labelFrc = TextGridLabelRenderer.getFontRenderContext(g2d);
 
-		if(tgView.isOpaque()) {
-			g2d.setColor(tgView.getBackground());
-			g2d.fillRect(0, 0, tgView.getWidth(), tgView.getHeight());
+		final Rectangle visibleRect = tgView.getVisibleRect();
+		if(!visibleRect.isEmpty()) {
+			final AffineTransform transform = g2d.getTransform();
+			final BufferedImage img = getTierImage(visibleRect, transform.getScaleX(), transform.getScaleY());
+			g2d.drawImage(img, visibleRect.x, visibleRect.y, visibleRect.width, visibleRect.height, null);
 		}
 
-		TextGrid tg = tgView.getTextGrid();
-		if(tg != null) {
-			int visibleTierIdx = 0;
-			for(long tIdx = 1; tIdx <= tg.numberOfTiers(); tIdx++) {
-				final Function tier = tg.tier(tIdx);
-				if(!tgView.isTierVisible(tier.getName())) continue;
-				
-				int tierLabelY = getTierY(tier.getName());
-				int tierHeight = getTierHeight(tier.getName());
-				int tierY = tierLabelY;
-				// tier rect
-				final Rectangle2D tierRect = new Rectangle2D.Double(
-						0, tierY, tgView.getWidth(), tierHeight);
-				visibleTierIdx++;
-				
-				try {
-					final IntervalTier intervalTier = tg.checkSpecifiedTierIsIntervalTier(tIdx);
-					paintIntervalTier(tIdx, intervalTier, g2d, tierRect);
-					if(tgView.isShowLabels()) {
-						var lblRect = paintTierLabel(intervalTier, g2d, tierLabelY);
-						tierLabelTree = 
-								tierLabelTree.add(tIdx, Geometries.rectangle(lblRect.getX(), lblRect.getY(), lblRect.getMaxX(), lblRect.getMaxY()));
-					}
-				} catch (PraatException pe) {
-					try {
-						final TextTier pointTier = tg.checkSpecifiedTierIsPointTier(tIdx);
-						paintPointTier(pointTier, g2d, tierRect);
-						if(tgView.isShowLabels()) {
-							var lblRect = paintTierLabel(pointTier, g2d, tierLabelY);
-							tierLabelTree = 
-									tierLabelTree.add(tIdx, Geometries.rectangle(lblRect.getX(), lblRect.getY(), lblRect.getMaxX(), lblRect.getMaxY()));
-						}
-					} catch (PraatException pe1) {
-						LogUtil.severe(pe1.getLocalizedMessage(), pe1);
-					}
-				}
-			}
-		}
-		
+		// overlays
 		for(var interval:tgView.getTimeModel().getIntervals()) {
 			paintInterval(g2d, interval, true);
 		}
@@ -188,8 +260,91 @@ public class TextGridViewUI extends TimeComponentUI {
 		}
 	}
 
-	public Rectangle2D paintTierLabel(Function tier, Graphics2D g2d, int y) {
-		final String name = (tier.getName() != null ? tier.getName().toString() : "");
+	/**
+	 * Return image of tier content for the visible area, painting it if
+	 * the TextGrid, layout, visible area or time scale has changed.
+	 *
+	 * @param visibleRect
+	 * @param scaleX device scale
+	 * @param scaleY device scale
+	 * @return tier image
+	 */
+	private BufferedImage getTierImage(Rectangle visibleRect, double scaleX, double scaleY) {
+		final double x0 = tgView.xForTime(0.0f);
+		final double x1 = tgView.xForTime(1.0f);
+		if(tierImage != null && tierImageValid && tierImageSnapshot == layoutSnapshot
+				&& visibleRect.equals(tierImageRect) && tierImageScaleX == scaleX && tierImageScaleY == scaleY
+				&& tierImageX0 == x0 && tierImageX1 == x1) {
+			return tierImage;
+		}
+
+		final int width = Math.max(1, (int)Math.ceil(visibleRect.width * scaleX));
+		final int height = Math.max(1, (int)Math.ceil(visibleRect.height * scaleY));
+		if(tierImage == null || tierImage.getWidth() != width || tierImage.getHeight() != height) {
+			tierImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+
+		final Graphics2D g2d = tierImage.createGraphics();
+		try {
+			g2d.setComposite(AlphaComposite.Clear);
+			g2d.fillRect(0, 0, width, height);
+			g2d.setComposite(AlphaComposite.SrcOver);
+
+			g2d.scale(scaleX, scaleY);
+			g2d.translate(-visibleRect.x, -visibleRect.y);
+			g2d.clip(visibleRect);
+			g2d.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+			g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			paintTiers(g2d);
+		} finally {
+			g2d.dispose();
+		}
+
+		tierImageSnapshot = layoutSnapshot;
+		tierImageRect = new Rectangle(visibleRect);
+		tierImageScaleX = scaleX;
+		tierImageScaleY = scaleY;
+		tierImageX0 = x0;
+		tierImageX1 = x1;
+		tierImageValid = true;
+		return tierImage;
+	}
+
+	private void paintTiers(Graphics2D g2d) {
+		if(tgView.isOpaque()) {
+			g2d.setColor(tgView.getBackground());
+			g2d.fillRect(0, 0, tgView.getWidth(), tgView.getHeight());
+		}
+
+		final TextGridSnapshot tg = layoutSnapshot;
+		int visibleTierIdx = 0;
+		for(long tIdx = 1; tIdx <= tg.numberOfTiers(); tIdx++) {
+			final TextGridSnapshot.Tier tier = tg.tier(tIdx);
+			if(!tierVisible[(int)tIdx - 1]) continue;
+			
+			int tierLabelY = tierYs[(int)tIdx - 1];
+			int tierHeight = tierHeights[(int)tIdx - 1];
+			int tierY = tierLabelY;
+			// tier rect
+			final Rectangle2D tierRect = new Rectangle2D.Double(
+					0, tierY, tgView.getWidth(), tierHeight);
+			visibleTierIdx++;
+			
+			if(tier.isIntervalTier()) {
+				paintIntervalTier(tIdx, tier, g2d, tierRect);
+			} else {
+				paintPointTier(tier, g2d, tierRect);
+			}
+			if(tgView.isShowLabels()) {
+				var lblRect = paintTierLabel(tier, g2d, tierLabelY);
+				tierLabelWidths[(int)tIdx - 1] = lblRect.getWidth();
+				tierLabelHeights[(int)tIdx - 1] = lblRect.getHeight();
+			}
+		}
+	}
+
+	public Rectangle2D paintTierLabel(TextGridSnapshot.Tier tier, Graphics2D g2d, int y) {
+		final String name = tier.getName();
 		int x = tgView.getVisibleRect().x;
 
 		Font lblFont = tgView.getFont().deriveFont(FontPreferences.getDefaultFontSize());
@@ -213,25 +368,37 @@ public class TextGridViewUI extends TimeComponentUI {
 		return labelRect;
 	}
 	
-	public void paintIntervalTier(long tierIndex, IntervalTier intervalTier, Graphics2D g2d, Rectangle2D bounds) {
+	public void paintIntervalTier(long tierIndex, TextGridSnapshot.Tier intervalTier, Graphics2D g2d, Rectangle2D bounds) {
 		Font tierFont = getTierFont(intervalTier.getName());
 		g2d.setFont(tierFont);
 
-		for(long i = 1; i <= intervalTier.numberOfIntervals(); i++) {
-			final TextInterval interval = intervalTier.interval(i);
-			
-			double startX = tgView.xForTime((float)interval.getXmin());
-			double endX = tgView.xForTime((float)interval.getXmax());
+		final Color labelColor = getLabel().getForeground();
+		final Rectangle2D labelRect = new Rectangle2D.Double();
+		final Rectangle visibleRect = tgView.getVisibleRect();
+		final long firstIdx = firstIndexAtOrAfter(intervalTier.size(),
+				(idx) -> tgView.xForTime((float)intervalTier.getEndTime(idx)), visibleRect.getX());
+
+		final LongToDoubleFunction boundaryX = (idx) -> tgView.xForTime((float)intervalTier.getStartTime(idx));
+		final long lastIdx = firstIndexAtOrAfter(intervalTier.size(), boundaryX, visibleRect.getMaxX()) - 1;
+		if(isLevelOfDetail(visibleRect, lastIdx - firstIdx + 1)) {
+			paintBoundaryDensity(g2d, bounds, visibleRect, intervalTier.size(), boundaryX);
+			// end boundary of last interval
+			final double endX = tgView.xForTime((float)intervalTier.getEndTime(intervalTier.size()));
+			if(endX >= visibleRect.getX() && endX <= visibleRect.getMaxX()) {
+				g2d.setColor(Color.DARK_GRAY);
+				g2d.draw(new Line2D.Double(endX, bounds.getY(), endX, bounds.getY() + bounds.getHeight()));
+			}
+			return;
+		}
+
+		for(long i = firstIdx; i <= intervalTier.size(); i++) {
+			double startX = tgView.xForTime((float)intervalTier.getStartTime(i));
+			double endX = tgView.xForTime((float)intervalTier.getEndTime(i));
+			if(startX > visibleRect.getMaxX()) break;
 			
 			Rectangle2D intervalRect = new Rectangle2D.Double(
 					startX, bounds.getY(), endX - startX, bounds.getHeight());
-			if(!intervalRect.intersects(tgView.getVisibleRect())) {
-				if(startX < tgView.getVisibleRect().getMaxX()) {
-					continue;
-				} else {
-					break;
-				}
-			}
+			if(!intervalRect.intersects(visibleRect)) continue;
 			
 			g2d.setColor(Color.DARK_GRAY);
 			final Line2D startLine = new Line2D.Double(startX, bounds.getY(), startX, 
@@ -242,31 +409,15 @@ public class TextGridViewUI extends TimeComponentUI {
 					endX, bounds.getY() + bounds.getHeight());
 			g2d.draw(endLine);
 
-			final String labelText = interval.getText();
-			JLabel lbl = getLabel();
-			lbl.setText(labelText);
-			lbl.setFont(tierFont);
-			
-			lbl.setHorizontalAlignment(SwingConstants.CENTER);
-			lbl.setHorizontalTextPosition(SwingConstants.CENTER);
-			lbl.setVerticalTextPosition(SwingConstants.CENTER);
-			
 			if(startX + labelInsets.left < (endX - labelInsets.right)) {
-				final Rectangle2D labelRect = new Rectangle2D.Double(
-						startX + labelInsets.left, bounds.getY(), (endX - labelInsets.right) - startX, bounds.getHeight());
-				SwingUtilities.paintComponent(g2d, lbl, tgView, labelRect.getBounds());
-				
-				if(labelRect.getWidth() < lbl.getPreferredSize().width) {
-					messageTree = messageTree.add(labelText, Geometries.rectangle(labelRect.getX(), labelRect.getY(), labelRect.getMaxX(), labelRect.getMaxY()));
-				}
-				
-				Tuple<Long, Long> intervalIndex = new Tuple<>(tierIndex, i);
-				intervalTree = intervalTree.add(intervalIndex, Geometries.rectangle(intervalRect.getX(), intervalRect.getY(), intervalRect.getMaxX(), intervalRect.getMaxY()));
+				labelRect.setRect(startX + labelInsets.left, bounds.getY(), (endX - labelInsets.right) - startX, bounds.getHeight());
+				g2d.setColor(labelColor);
+				labelRenderer.paintLabel(g2d, intervalTier.getText(i), tierFont, labelRect);
 			} // otherwise too small an area
 		}		
 	}
 	
-	public void paintPointTier(TextTier textTier, Graphics2D g2d, Rectangle2D bounds) {
+	public void paintPointTier(TextGridSnapshot.Tier textTier, Graphics2D g2d, Rectangle2D bounds) {
 		Font tierFont = getTierFont(textTier.getName());
 		g2d.setFont(tierFont);
 
@@ -275,10 +426,21 @@ public class TextGridViewUI extends TimeComponentUI {
 		double pxPerSec = contentWidth / tgLen;
 		double xoffset = textTier.getXmin();
 		
-		for(long i = 1; i <= textTier.numberOfPoints(); i++) {
-			final TextPoint tp = textTier.point(i);
+		final Rectangle visibleRect = tgView.getVisibleRect();
+		final LongToDoubleFunction pointX = (idx) -> (textTier.getStartTime(idx) - xoffset) * pxPerSec;
+		final long numVisible = firstIndexAtOrAfter(textTier.size(), pointX, visibleRect.getMaxX())
+				- firstIndexAtOrAfter(textTier.size(), pointX, visibleRect.getX());
+		if(isLevelOfDetail(visibleRect, numVisible)) {
+			paintBoundaryDensity(g2d, bounds, visibleRect, textTier.size(), pointX);
+			return;
+		}
+
+		final long firstIdx = firstIndexAtOrAfter(textTier.size(), pointX, visibleRect.getX() - POINT_LABEL_MARGIN);
+		for(long i = firstIdx; i <= textTier.size(); i++) {
+			final String text = textTier.getText(i);
 			
-			double lineX = (tp.getNumber() - xoffset) * pxPerSec;
+			double lineX = (textTier.getStartTime(i) - xoffset) * pxPerSec;
+			if(lineX - POINT_LABEL_MARGIN > visibleRect.getMaxX()) break;
 			
 			g2d.setColor(Color.DARK_GRAY);
 			final Line2D pointLine = new Line2D.Double(lineX, bounds.getY(), lineX,
@@ -286,7 +448,7 @@ public class TextGridViewUI extends TimeComponentUI {
 			g2d.draw(pointLine);
 			
 			final Rectangle2D textBounds = 
-					g2d.getFontMetrics().getStringBounds(tp.getText(), g2d);
+					g2d.getFontMetrics().getStringBounds(text, g2d);
 			
 			float x = (float)(lineX - textBounds.getCenterX());
 			float y = (float)((bounds.getY() + (bounds.getHeight() / 2.0)) - (textBounds.getHeight()/2.0));
@@ -296,44 +458,142 @@ public class TextGridViewUI extends TimeComponentUI {
 			g2d.fill(textBounds);
 			
 			g2d.setColor(Color.black);
-			g2d.drawString(tp.getText(), x, (float)(textBounds.getY() + textBounds.getHeight() - g2d.getFontMetrics().getDescent()));
+			g2d.drawString(text, x, (float)(textBounds.getY() + textBounds.getHeight() - g2d.getFontMetrics().getDescent()));
 		}
 	}
 	
-	private <T> Optional<T> hitTest(RTree<T, com.github.davidmoten.rtree.geometry.Rectangle> tree, com.github.davidmoten.rtree.geometry.Point p) {
-		var entries = tree.search(p);
-		List<Tuple<com.github.davidmoten.rtree.geometry.Rectangle, T>> tupleList = new ArrayList<>();
-		entries
-			.map( entry -> new Tuple<com.github.davidmoten.rtree.geometry.Rectangle, T>(entry.geometry(), entry.value()))
-			.subscribe(tupleList::add);
-		
-		if(tupleList.size() > 0) {
-			double dist = Double.MAX_VALUE;
-			Tuple<com.github.davidmoten.rtree.geometry.Rectangle, T> currentTuple = null;
-			for(var tuple:tupleList) {
-				double d = p.distance(tuple.getObj1());
-				
-				if(d < dist) {
-					dist = d;
-					currentTuple = tuple;
-				}
+	/**
+	 * @param visibleRect
+	 * @param numVisible number of visible intervals or points
+	 * @return <code>true</code> if the tier should be painted as a density strip
+	 */
+	private boolean isLevelOfDetail(Rectangle visibleRect, long numVisible) {
+		return numVisible > 0 && visibleRect.getWidth() / numVisible < lodThreshold;
+	}
+
+	/**
+	 * Paint boundaries as a strip with one column per pixel shaded by the
+	 * number of boundaries in that column.  Cost is bounded by the
+	 * width of the visible area instead of the number of boundaries.
+	 *
+	 * @param g2d
+	 * @param bounds
+	 * @param visibleRect
+	 * @param size number of boundaries
+	 * @param x x value for (1-based) boundary index, must be non-decreasing
+	 */
+	private void paintBoundaryDensity(Graphics2D g2d, Rectangle2D bounds, Rectangle visibleRect,
+			long size, LongToDoubleFunction x) {
+		final Rectangle2D column = new Rectangle2D.Double(0, bounds.getY(), 1.0, bounds.getHeight());
+		final int maxCol = (int)Math.ceil(visibleRect.getMaxX());
+		int col = (int)Math.floor(visibleRect.getX());
+		long idx = firstIndexAtOrAfter(size, x, col);
+		while(idx <= size && col < maxCol) {
+			// skip empty columns
+			col = Math.max(col, (int)Math.floor(x.applyAsDouble(idx)));
+			if(col >= maxCol) break;
+
+			final long nextIdx = firstIndexAtOrAfter(size, x, col + 1);
+			final long count = nextIdx - idx;
+			if(count > 0) {
+				g2d.setColor(DENSITY_COLORS[(int)Math.min(count, DENSITY_SATURATION)]);
+				column.setRect(col, bounds.getY(), 1.0, bounds.getHeight());
+				g2d.fill(column);
 			}
-			return Optional.of(currentTuple.getObj2());
-		} else {
-			return Optional.empty();
+			idx = nextIdx;
+			col++;
 		}
 	}
-	
-	private Optional<Tuple<Long, Long>> intervalHitTest(com.github.davidmoten.rtree.geometry.Point p) {
-		return hitTest(intervalTree, p);
+
+	/**
+	 * Binary search for the first index in <code>[1, size]</code> with
+	 * an x value at or after the given position.  Values of x must be
+	 * non-decreasing with index.
+	 *
+	 * @param size
+	 * @param x x value for (1-based) index
+	 * @param minX
+	 * @return first index or <code>size + 1</code> if all values are before minX
+	 */
+	private static long firstIndexAtOrAfter(long size, LongToDoubleFunction x, double minX) {
+		long low = 1;
+		long high = size + 1;
+		while(low < high) {
+			final long mid = (low + high) >>> 1;
+			if(x.applyAsDouble(mid) < minX) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @param y
+	 * @return 1-based index of visible tier at y or -1
+	 */
+	private long tierAtY(double y) {
+		ensureLayout();
+		for(int i = 0; i < tierYs.length; i++) {
+			if(tierVisible[i] && y >= tierYs[i] && y < tierYs[i] + tierHeights[i]) return i + 1;
+		}
+		return -1;
+	}
+
+	/**
+	 * Find interval of tier at x.  Intervals too small to be labelled
+	 * are ignored, as when painted.
+	 *
+	 * @param tier
+	 * @param x
+	 * @return 1-based index of interval or -1
+	 */
+	private long intervalAtX(TextGridSnapshot.Tier tier, double x) {
+		final long idx = firstIndexAtOrAfter(tier.size(), (i) -> tgView.xForTime((float)tier.getEndTime(i)), x);
+		if(idx > tier.size()) return -1;
+		final double startX = tgView.xForTime((float)tier.getStartTime(idx));
+		final double endX = tgView.xForTime((float)tier.getEndTime(idx));
+		if(x < startX || startX + labelInsets.left >= endX - labelInsets.right) return -1;
+		return idx;
+	}
+
+	private Optional<Tuple<Long, Long>> intervalHitTest(Point p) {
+		final long tierIdx = tierAtY(p.getY());
+		if(tierIdx < 0 || !layoutSnapshot.tier(tierIdx).isIntervalTier()) return Optional.empty();
+		final long intervalIdx = intervalAtX(layoutSnapshot.tier(tierIdx), p.getX());
+		return (intervalIdx > 0 ? Optional.of(new Tuple<>(tierIdx, intervalIdx)) : Optional.empty());
 	}
 	
-	private Optional<String> messageHitTest(com.github.davidmoten.rtree.geometry.Point p) {
-		return hitTest(messageTree, p);
+	private Optional<String> messageHitTest(Point p) {
+		final long tierIdx = tierAtY(p.getY());
+		if(tierIdx < 0 || !layoutSnapshot.tier(tierIdx).isIntervalTier()) return Optional.empty();
+		final TextGridSnapshot.Tier tier = layoutSnapshot.tier(tierIdx);
+		final long intervalIdx = intervalAtX(tier, p.getX());
+		if(intervalIdx < 0) return Optional.empty();
+
+		// label text is displayed in a tooltip if it does not fit the interval
+		final double startX = tgView.xForTime((float)tier.getStartTime(intervalIdx));
+		final double endX = tgView.xForTime((float)tier.getEndTime(intervalIdx));
+		final String labelText = tier.getText(intervalIdx);
+		final Font tierFont = getTierFont(tier.getName());
+		final FontRenderContext frc = (labelFrc != null ? labelFrc : tgView.getFontMetrics(tierFont).getFontRenderContext());
+		return (!labelRenderer.fits(labelText, tierFont, frc, (endX - labelInsets.right) - startX)
+				? Optional.of(labelText) : Optional.empty());
 	}
 	
-	private Optional<Long> tierLabelHitTest(com.github.davidmoten.rtree.geometry.Point p) {
-		return hitTest(tierLabelTree, p);
+	private Optional<Long> tierLabelHitTest(Point p) {
+		if(!tgView.isShowLabels()) return Optional.empty();
+		final long tierIdx = tierAtY(p.getY());
+		if(tierIdx < 0) return Optional.empty();
+
+		final int i = (int)tierIdx - 1;
+		final double x = tgView.getVisibleRect().getX();
+		if(p.getX() >= x && p.getX() <= x + tierLabelWidths[i]
+				&& p.getY() <= tierYs[i] + tierLabelHeights[i]) {
+			return Optional.of(tierIdx);
+		}
+		return Optional.empty();
 	}
 	
 	private final MouseInputAdapter mouseListener = new MouseInputAdapter() {
@@ -348,11 +608,11 @@ public class TextGridViewUI extends TimeComponentUI {
 			if(!tgView.isEnabled()) return;
 			
 			if(tgView.getUI().getCurrentlyDraggedMarker() == null) {
-				Optional<Long> tierIndex = tierLabelHitTest(Geometries.point(e.getX(), e.getY()));
+				Optional<Long> tierIndex = tierLabelHitTest(e.getPoint());
 				if(tierIndex.isPresent()) {
 					tgView.fireTierLabelClicked(tierIndex.get(), e);
 				} else {
-					Optional<Tuple<Long, Long>> optionalInterval = intervalHitTest(Geometries.point(e.getX(), e.getY()));
+					Optional<Tuple<Long, Long>> optionalInterval = intervalHitTest(e.getPoint());
 					if(e.getButton() == MouseEvent.BUTTON1 && optionalInterval.isPresent()) {
 						tgView.fireIntervalSelected(optionalInterval.get());
 					}
@@ -369,14 +629,14 @@ public class TextGridViewUI extends TimeComponentUI {
 			if(!tgView.isEnabled()) return;
 			
 			if(tgView.getUI().getCurrentlyDraggedMarker() == null) {
-				Optional<Long> tierIndex = tierLabelHitTest(Geometries.point(e.getX(), e.getY()));
+				Optional<Long> tierIndex = tierLabelHitTest(e.getPoint());
 				if(tierIndex.isPresent()) {
 					tgView.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
 				} else if(tgView.getCursor() == Cursor.getPredefinedCursor(Cursor.HAND_CURSOR)) {
 					tgView.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
 				}
 			
-				Optional<String> toolTip = messageHitTest(Geometries.point(e.getX(), e.getY()));
+				Optional<String> toolTip = messageHitTest(e.getPoint());
 				if(toolTip.isPresent()) {
 					tgView.setToolTipText(toolTip.get());
 				} else {
@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat;
+
+import ca.phon.plugins.praat.painters.SpectrogramMatrix;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Spectrogram of a segment computed as a number of independent time
+ * tiles.  Each tile has a nominal time range; tiles are analysed over
+ * their nominal range extended by an overlap on either side so that
+ * frames at tile boundaries are computed from complete windows and the
+ * stitched display is seamless.
+ *
+ * Tiles are stored as {@link SpectrogramMatrix} snapshots and may be
+ * added after the tiled spectrogram has been published, tiles which
+ * are not yet available are <code>null</code>.  Closing the tiled
+ * spectrogram releases all tiles, tiles added after closing are
+ * discarded.
+ *
+ * Tiles may initially be computed at a reduced (preview) resolution and
+ * later replaced by a tile computed with the exact analysis settings,
+ * see {@link #setTile(int, SpectrogramMatrix, boolean)} and
+ * {@link #refineTile(int, SpectrogramMatrix)}.  Tiles of different
+ * resolution may be present at the same time.
+ *
+ */
+public class TiledSpectrogram implements AutoCloseable {
+
+	private final double xmin;
+
+	private final double xmax;
+
+	private final double overlap;
+
+	private final int numTiles;
+
+	private final AtomicReferenceArray<SpectrogramMatrix> tiles;
+
+	/* tiles computed with exact analysis settings */
+	private final boolean[] exact;
+
+	/* tiles with refinement in progress */
+	private final boolean[] refining;
+
+	private boolean closed = false;
+
+	/**
+	 * Create a new tiled spectrogram.
+	 *
+	 * @param xmin start time of segment
+	 * @param xmax end time of segment
+	 * @param tileLength maximum nominal length of each tile in seconds
+	 * @param overlap time added to each side of a tile during analysis
+	 */
+	public TiledSpectrogram(double xmin, double xmax, double tileLength, double overlap) {
+		super();
+		this.xmin = xmin;
+		this.xmax = xmax;
+		this.overlap = overlap;
+		this.numTiles = (tileLength > 0.0 ? Math.max(1, (int)Math.ceil((xmax - xmin) / tileLength - 1e-9)) : 1);
+		this.tiles = new AtomicReferenceArray<>(numTiles);
+		this.exact = new boolean[numTiles];
+		this.refining = new boolean[numTiles];
+	}
+
+	public double getXMin() {
+		return xmin;
+	}
+
+	public double getXMax() {
+		return xmax;
+	}
+
+	public double getOverlap() {
+		return overlap;
+	}
+
+	public int getNumTiles() {
+		return numTiles;
+	}
+
+	/**
+	 * @param tile
+	 * @return nominal start time of tile
+	 */
+	public double getTileStart(int tile) {
+		return xmin + tile * (xmax - xmin) / numTiles;
+	}
+
+	/**
+	 * @param tile
+	 * @return nominal end time of tile
+	 */
+	public double getTileEnd(int tile) {
+		return (tile == numTiles - 1 ? xmax : xmin + (tile + 1) * (xmax - xmin) / numTiles);
+	}
+
+	/**
+	 * @param tile
+	 * @return start time of analysed range for tile
+	 */
+	public double getAnalysisStart(int tile) {
+		return Math.max(xmin, getTileStart(tile) - overlap);
+	}
+
+	/**
+	 * @param tile
+	 * @return end time of analysed range for tile
+	 */
+	public double getAnalysisEnd(int tile) {
+		return Math.min(xmax, getTileEnd(tile) + overlap);
+	}
+
+	/**
+	 * @param tile
+	 * @return spectrogram for tile or <code>null</code> if not yet available
+	 */
+	public SpectrogramMatrix getTile(int tile) {
+		return tiles.get(tile);
+	}
+
+	/**
+	 * Set spectrogram for tile.
+	 *
+	 * @param tile
+	 * @param spectrogram
+	 * @return <code>true</code> if the tile was set, <code>false</code> if
+	 *  this object has been closed or the tile was already set
+	 */
+	public boolean setTile(int tile, SpectrogramMatrix spectrogram) {
+		return setTile(tile, spectrogram, true);
+	}
+
+	/**
+	 * Set spectrogram for tile.
+	 *
+	 * @param tile
+	 * @param spectrogram
+	 * @param exact <code>true</code> if spectrogram was computed using the
+	 *  exact analysis settings, <code>false</code> for preview tiles
+	 * @return <code>true</code> if the tile was set, <code>false</code> if
+	 *  this object has been closed or the tile was already set
+	 */
+	public synchronized boolean setTile(int tile, SpectrogramMatrix spectrogram, boolean exact) {
+		if(spectrogram == null || closed) return false;
+		if(tiles.compareAndSet(tile, null, spectrogram)) {
+			this.exact[tile] = exact;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @param tile
+	 * @return <code>true</code> if tile is available and was computed
+	 *  using the exact analysis settings
+	 */
+	public synchronized boolean isExact(int tile) {
+		return tiles.get(tile) != null && exact[tile];
+	}
+
+	/**
+	 * Mark a preview tile as being refined.
+	 *
+	 * @param tile
+	 * @return <code>true</code> if the caller should compute the exact
+	 *  tile, <code>false</code> if the tile is not available, is already
+	 *  exact, is being refined or this object has been closed
+	 */
+	public synchronized boolean beginRefinement(int tile) {
+		if(closed || tiles.get(tile) == null || exact[tile] || refining[tile]) return false;
+		refining[tile] = true;
+		return true;
+	}
+
+	/**
+	 * Replace a preview tile with a tile computed using the exact
+	 * analysis settings.  If <code>spectrogram</code> is <code>null</code>
+	 * (i.e., analysis failed) the preview tile is kept and refinement
+	 * may be attempted again.
+	 *
+	 * @param tile
+	 * @param spectrogram
+	 * @return <code>true</code> if the tile was replaced
+	 */
+	public synchronized boolean refineTile(int tile, SpectrogramMatrix spectrogram) {
+		refining[tile] = false;
+		if(spectrogram == null || closed) return false;
+		tiles.set(tile, spectrogram);
+		exact[tile] = true;
+		return true;
+	}
+
+	public synchronized boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * @return <code>true</code> if all tiles are available
+	 */
+	public boolean isComplete() {
+		for(int i = 0; i < numTiles; i++) {
+			if(tiles.get(i) == null) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return smallest time step between frames of available tiles or
+	 *  <code>0.0</code> if no tiles are available
+	 */
+	public double getDx() {
+		double retVal = 0.0;
+		for(int i = 0; i < numTiles; i++) {
+			final SpectrogramMatrix tile = tiles.get(i);
+			if(tile != null && (retVal == 0.0 || tile.getDx() < retVal)) retVal = tile.getDx();
+		}
+		return retVal;
+	}
+
+	/**
+	 * @return largest number of frequency bins of available tiles or
+	 *  <code>0</code> if no tiles are available
+	 */
+	public int getNy() {
+		int retVal = 0;
+		for(int i = 0; i < numTiles; i++) {
+			final SpectrogramMatrix tile = tiles.get(i);
+			if(tile != null) retVal = Math.max(retVal, tile.getNy());
+		}
+		return retVal;
+	}
+
+	/**
+	 * @return smallest frequency step between bins of available tiles or
+	 *  <code>0.0</code> if no tiles are available
+	 */
+	public double getDy() {
+		double retVal = 0.0;
+		for(int i = 0; i < numTiles; i++) {
+			final SpectrogramMatrix tile = tiles.get(i);
+			if(tile != null && (retVal == 0.0 || tile.getDy() < retVal)) retVal = tile.getDy();
+		}
+		return retVal;
+	}
+
+	/**
+	 * Order in which tiles should be loaded.  Tiles intersecting the given
+	 * visible range are loaded first, the remaining tiles are ordered by
+	 * distance from the visible range.
+	 *
+	 * @param visibleStart
+	 * @param visibleEnd
+	 * @return tile indices in load order
+	 */
+	public List<Integer> getLoadOrder(double visibleStart, double visibleEnd) {
+		final double visibleCenter = (visibleStart + visibleEnd) / 2.0;
+		final List<Integer> retVal = new ArrayList<>();
+		for(int i = 0; i < numTiles; i++) retVal.add(i);
+		retVal.sort(Comparator.comparingDouble( (Integer tile) -> {
+			final double tileStart = getTileStart(tile);
+			final double tileEnd = getTileEnd(tile);
+			if(tileEnd >= visibleStart && tileStart <= visibleEnd) return 0.0;
+			return Math.abs((tileStart + tileEnd) / 2.0 - visibleCenter);
+		}));
+		return retVal;
+	}
+
+	@Override
+	public void close() {
+		synchronized(this) {
+			if(closed) return;
+			closed = true;
+		}
+		for(int i = 0; i < numTiles; i++) {
+			tiles.set(i, null);
+		}
+	}
+
+}
@@ -513,32 +513,39 @@ public class TextGridExporter {
 		double endTime = mediaSeg.getEndValue() / 1000.0;
 
 		final TextGrid recordTextGrid = oldTextGrid.extractPart(startTime, endTime, true);
-		for(long tierIdx = 1; tierIdx <= recordTextGrid.numberOfTiers(); tierIdx++) {
-			try {
-				final IntervalTier oldTier = recordTextGrid.checkSpecifiedTierIsIntervalTier(tierIdx);
-				final IntervalTier newTier = findIntervalTier(textGrid, oldTier.getName().toString());
-
-				if(newTier != null) {
-					for(long intervalIdx = 1; intervalIdx <= oldTier.numberOfIntervals(); intervalIdx++) {
-						final TextInterval oldInterval = oldTier.interval(intervalIdx);
-						newTier.addInterval(oldInterval.getXmin(), oldInterval.getXmax(), oldInterval.getText());
-						retVal = true;
+		try {
+			for(long tierIdx = 1; tierIdx <= recordTextGrid.numberOfTiers(); tierIdx++) {
+				try {
+					final IntervalTier oldTier = recordTextGrid.checkSpecifiedTierIsIntervalTier(tierIdx);
+					final IntervalTier newTier = findIntervalTier(textGrid, oldTier.getName().toString());
+
+					if(newTier != null) {
+						for(long intervalIdx = 1; intervalIdx <= oldTier.numberOfIntervals(); intervalIdx++) {
+							final TextInterval oldInterval = oldTier.interval(intervalIdx);
+							newTier.addInterval(oldInterval.getXmin(), oldInterval.getXmax(), oldInterval.getText());
+							retVal = true;
+						}
 					}
-				}
-			} catch (PraatException pe) {
-				final TextTier oldTier = recordTextGrid.checkSpecifiedTierIsPointTier(tierIdx);
-				final TextTier newTier = findPointTier(textGrid, oldTier.getName().toString());
-
-				if(newTier != null) {
-					for(long pointIdx = 1; pointIdx <= oldTier.numberOfPoints(); pointIdx++) {
-						final TextPoint textPoint = oldTier.point(pointIdx);
-						newTier.addPoint(textPoint.getNumber(), textPoint.getText());
-						retVal = true;
+				} catch (PraatException pe) {
+					final TextTier oldTier = recordTextGrid.checkSpecifiedTierIsPointTier(tierIdx);
+					final TextTier newTier = findPointTier(textGrid, oldTier.getName().toString());
+
+					if(newTier != null) {
+						for(long pointIdx = 1; pointIdx <= oldTier.numberOfPoints(); pointIdx++) {
+							final TextPoint textPoint = oldTier.point(pointIdx);
+							newTier.addPoint(textPoint.getNumber(), textPoint.getText());
+							retVal = true;
+						}
 					}
 				}
 			}
+		} finally {
+			try {
+				recordTextGrid.close();
+			} catch (Exception e) {
+				LOGGER.log(Level.WARNING, e.getLocalizedMessage(), e);
+			}
 		}
-
 		return retVal;
 	}
 
@@ -192,10 +192,18 @@ public class TextGridImportWizard extends WizardFrame {
 					if(recordInterval.getText().trim().length() == 0 &&
 							step1.isIgnoreEmptyIntervals()) continue;
 
-					TextGrid tg = textGrid.extractPart(recordInterval.getXmin(), recordInterval.getXmax(), true);
+					final TextGrid tg = textGrid.extractPart(recordInterval.getXmin(), recordInterval.getXmax(), true);
 					// create a new record for each interval
-					final Record newRecord =
-							importer.createRecordFromTextGrid(session, tg, step1.getTierMap());
+					final Record newRecord;
+					try {
+						newRecord = importer.createRecordFromTextGrid(session, tg, step1.getTierMap());
+					} finally {
+						try {
+							tg.close();
+						} catch (Exception e) {
+							LogUtil.warning(e);
+						}
+					}
 
 					List<String> rowData = new ArrayList<>();
 					rowData.add( (++rIdx) + "");
@@ -225,6 +233,13 @@ public class TextGridImportWizard extends WizardFrame {
 
 				setStatus(TaskStatus.ERROR);
 			} finally {
+				if(textGrid != null) {
+					try {
+						textGrid.close();
+					} catch (Exception e) {
+						LogUtil.warning(e);
+					}
+				}
 				cmpEdit.addEdit(new AbstractUndoableEdit() {
 
 					@Override
@@ -95,15 +95,14 @@ public class TextGridImporter {
 
 			if(recordInterval.getText().trim().length() == 0 &&
 					ignoreEmptyIntervals) continue;
-			try {
-				TextGrid tg = textGrid.extractPart(recordInterval.getXmin(), recordInterval.getXmax(), true);
+			try(final TextGrid tg = textGrid.extractPart(recordInterval.getXmin(), recordInterval.getXmax(), true)) {
 				// create a new record for each interval
 				final Record newRecord =
 						createRecordFromTextGrid(session, tg, tierMap);
 				session.addRecord(newRecord);
 
 				retVal.add(newRecord);
-			} catch (PraatException e) {
+			} catch (Exception e) {
 				LOGGER.log(Level.SEVERE, e.getLocalizedMessage(), e);
 			}
 		}
@@ -152,10 +152,9 @@ public class PitchNode extends PraatNode implements NodeSettings {
 		final PitchSettings pitchSettings = getPitchSettings();
 		kPitch_unit pitchUnit = pitchSettings.getUnits();
 		String unitTxt = "";
-		try {
-			Pitch pitch = Pitch.create(0.0, 0.0, 0, 0.0, 0.0, 0.0, 0);
+		try(final Pitch pitch = Pitch.create(0.0, 0.0, 0, 0.0, 0.0, 0.0, 0)) {
 			unitTxt = pitch.getUnitText(Pitch.LEVEL_FREQUENCY, pitchUnit.ordinal(), Function.UNIT_TEXT_SHORT);
-		} catch (PraatException e) {
+		} catch (Exception e) {
 			
 		}
 		for(int i = 10; i < 100; i+=10) {
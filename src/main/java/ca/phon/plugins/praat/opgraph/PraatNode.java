@@ -121,7 +121,8 @@ public abstract class PraatNode extends TableOpNode implements NodeSettings {
 
 					if(firstInterval != null && lastInterval != null) {
 						try {
-							retVal = TextInterval.create(firstInterval.getXmin(), lastInterval.getXmax(), "");
+							retVal = NativeLeakDetector.getInstance().allocated(
+									TextInterval.create(firstInterval.getXmin(), lastInterval.getXmax(), ""));
 						} catch (PraatException e) {
 							LOGGER.log(Level.SEVERE, e.getLocalizedMessage(), e);
 						}
@@ -137,7 +138,8 @@ public abstract class PraatNode extends TableOpNode implements NodeSettings {
 
 					if(firstInterval != null && lastInterval != null) {
 						try {
-							retVal = TextInterval.create(firstInterval.getXmin(), lastInterval.getXmax(), "");
+							retVal = NativeLeakDetector.getInstance().allocated(
+									TextInterval.create(firstInterval.getXmin(), lastInterval.getXmax(), ""));
 						} catch (PraatException e) {
 							LOGGER.log(Level.SEVERE, e.getLocalizedMessage(), e);
 						}
@@ -155,7 +157,10 @@ public abstract class PraatNode extends TableOpNode implements NodeSettings {
 							TextInterval lastInterval = lastWord.getExtension(TextInterval.class);
 							if (firstInterval != null && lastInterval != null) {
 								try {
-									retVal = TextInterval.create(firstInterval.getXmin(), lastInterval.getXmax(), "");
+									final TextInterval created = TextInterval.create(firstInterval.getXmin(), lastInterval.getXmax(), "");
+									// only the interval for the last word is returned
+									if(retVal != null) disposeTextInterval(retVal);
+									retVal = NativeLeakDetector.getInstance().allocated(created);
 								} catch (PraatException e) {
 									LOGGER.log(Level.SEVERE, e.getLocalizedMessage(), e);
 								}
@@ -169,6 +174,15 @@ public abstract class PraatNode extends TableOpNode implements NodeSettings {
 		return retVal;
 	}
 
+	private void disposeTextInterval(TextInterval textInterval) {
+		NativeLeakDetector.getInstance().released(textInterval);
+		try {
+			textInterval.close();
+		} catch (Exception e) {
+			LogUtil.severe(e);
+		}
+	}
+
 	@Override
 	public void operate(OpContext context) throws ProcessingException {
 		final Project project = (Project)context.get(projectInput);
@@ -205,6 +219,8 @@ public abstract class PraatNode extends TableOpNode implements NodeSettings {
 				// clean up old data
 				if(textGrid != null) {
 					try {
+						NativeMemoryRegistry.getInstance().untrack(textGrid);
+						NativeLeakDetector.getInstance().released(textGrid);
 						textGrid.close();
 					} catch (Exception e) {
 						LogUtil.severe(e);
@@ -212,6 +228,8 @@ public abstract class PraatNode extends TableOpNode implements NodeSettings {
 				}
 				if(longSound != null) {
 					try {
+						NativeMemoryRegistry.getInstance().untrack(longSound);
+						NativeLeakDetector.getInstance().released(longSound);
 						longSound.close();
 					} catch (Exception e) {
 						LogUtil.severe(e);
@@ -223,9 +241,11 @@ public abstract class PraatNode extends TableOpNode implements NodeSettings {
 					if(!textGridFile.isPresent())
 						throw new PraatException("TextGrid not found for " + sessionName);
 					
-					textGrid = TextGridManager.loadTextGrid(textGridFile.get());
+					textGrid = NativeLeakDetector.getInstance().allocated(TextGridManager.loadTextGrid(textGridFile.get()));
 					File mediaFile = getMediaFile(project, session);
-					longSound = LongSound.open(MelderFile.fromPath(mediaFile.getAbsolutePath()));
+					longSound = NativeLeakDetector.getInstance().allocated(LongSound.open(MelderFile.fromPath(mediaFile.getAbsolutePath())));
+					NativeMemoryRegistry.getInstance().track(textGrid);
+					NativeMemoryRegistry.getInstance().track(longSound);
 				} catch (IOException | PraatException e) {
 					LOGGER.log(Level.SEVERE, e.getLocalizedMessage(), e);
 					throw new ProcessingException(null, e);
@@ -252,11 +272,14 @@ public abstract class PraatNode extends TableOpNode implements NodeSettings {
 			if(isUseRecordInterval()) {
 				if(recordList.contains(result.getRecordIndex())) continue;
 				try {
-					textInterval = TextInterval.create(startTime, endTime, ReportHelper.createResultString(result));
+					textInterval = NativeLeakDetector.getInstance().allocated(
+							TextInterval.create(startTime, endTime, ReportHelper.createResultString(result)));
 					addRowToTable(longSound, textGrid, textInterval, session, sessionName, segment, result, null, null, outputTable);
 					recordList.add(result.getRecordIndex());
 				} catch (PraatException pe) {
 					LOGGER.log(Level.SEVERE, pe.getLocalizedMessage(), pe);
+				} finally {
+					if(textInterval != null) disposeTextInterval(textInterval);
 				}
 			} else if(isUseTextGridInterval()) {
 				try(final TextGrid recordTextGrid = textGrid.extractPart(startTime, endTime, true)) {
@@ -460,18 +483,16 @@ public abstract class PraatNode extends TableOpNode implements NodeSettings {
 						continue;
 					}
 					try {
-						textInterval.setText(resultValue.toString());
-					} catch (PraatException e) {
-						LogUtil.warning(e);
-					}
-					addRowToTable(longSound, textGrid, textInterval, session, sessionName, segment, result, rv, resultValue, outputTable);
-					
-					// delete textInterval if a new instance was created in getTextInterval(IExtendable)
-					if(textInterval != extendable.getExtension(TextInterval.class)) {
 						try {
-							textInterval.close();
-						} catch (Exception e) {
-							LogUtil.severe(e);
+							textInterval.setText(resultValue.toString());
+						} catch (PraatException e) {
+							LogUtil.warning(e);
+						}
+						addRowToTable(longSound, textGrid, textInterval, session, sessionName, segment, result, rv, resultValue, outputTable);
+					} finally {
+						// delete textInterval if a new instance was created in getTextInterval(IExtendable)
+						if(textInterval != extendable.getExtension(TextInterval.class)) {
+							disposeTextInterval(textInterval);
 						}
 					}
 				} catch (Exception e) {
@@ -484,6 +505,8 @@ public abstract class PraatNode extends TableOpNode implements NodeSettings {
 		// cleanup
 		if(textGrid != null) {
 			try {
+				NativeMemoryRegistry.getInstance().untrack(textGrid);
+				NativeLeakDetector.getInstance().released(textGrid);
 				textGrid.close();
 			} catch (Exception e) {
 				LogUtil.severe(e);
@@ -491,6 +514,8 @@ public abstract class PraatNode extends TableOpNode implements NodeSettings {
 		}
 		if(longSound != null) {
 			try {
+				NativeMemoryRegistry.getInstance().untrack(longSound);
+				NativeLeakDetector.getInstance().released(longSound);
 				longSound.close();
 			} catch (Exception e) {
 				LogUtil.severe(e);
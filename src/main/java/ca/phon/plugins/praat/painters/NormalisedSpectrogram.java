@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat.painters;
+
+/**
+ * Intensity values (in dB) of a {@link SpectrogramMatrix} after pre-emphasis
+ * and the frame dependent part of dynamic compression have been applied.
+ * Values depend only on the pre-emphasis and dynamic compression settings;
+ * display parameters (maximum, dynamic range, colour map) are applied when
+ * painting.
+ *
+ * Dynamic compression raises each frame by
+ * <code>dynamicCompression * (maximum - frameMaximum)</code>.  Since the
+ * maximum may be shared by several spectrograms (e.g., tiles) only
+ * <code>-dynamicCompression * frameMaximum</code> is included in the stored
+ * values; <code>dynamicCompression * maximum</code> must be added
+ * when painting.
+ *
+ */
+public final class NormalisedSpectrogram {
+
+	private final int nx;
+
+	private final int ny;
+
+	/* frame-major */
+	private final float[] values;
+
+	private final double maximum;
+
+	private final double preEmphasis;
+
+	private final double dynamicCompression;
+
+	public NormalisedSpectrogram(int nx, int ny, float[] values, double maximum,
+			double preEmphasis, double dynamicCompression) {
+		super();
+		this.nx = nx;
+		this.ny = ny;
+		this.values = values;
+		this.maximum = maximum;
+		this.preEmphasis = preEmphasis;
+		this.dynamicCompression = dynamicCompression;
+	}
+
+	/**
+	 * @return number of frames
+	 */
+	public int getNx() {
+		return nx;
+	}
+
+	/**
+	 * @return number of frequency bins
+	 */
+	public int getNy() {
+		return ny;
+	}
+
+	/**
+	 * Values indexed by <code>frame * ny + bin</code>.  The returned
+	 * array must not be modified.
+	 *
+	 * @return values
+	 */
+	public float[] getValues() {
+		return values;
+	}
+
+	/**
+	 * @return maximum pre-emphasised dB value before dynamic compression
+	 */
+	public double getMaximum() {
+		return maximum;
+	}
+
+	public double getPreEmphasis() {
+		return preEmphasis;
+	}
+
+	public double getDynamicCompression() {
+		return dynamicCompression;
+	}
+
+	/**
+	 * @param preEmphasis
+	 * @param dynamicCompression
+	 * @return <code>true</code> if values were computed using the given settings
+	 */
+	public boolean isComputedWith(double preEmphasis, double dynamicCompression) {
+		return Double.compare(this.preEmphasis, preEmphasis) == 0
+				&& Double.compare(this.dynamicCompression, dynamicCompression) == 0;
+	}
+
+}
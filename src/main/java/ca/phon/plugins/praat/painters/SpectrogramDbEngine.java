@@ -0,0 +1,317 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat.painters;
+
+import java.util.concurrent.*;
+
+/**
+ * Numeric kernels used when painting spectrograms: conversion of power
+ * values to pre-emphasised dB with dynamic compression, and mapping of
+ * dB values to colours.  By default frames are processed in parallel on
+ * the common fork/join pool; each kernel also has a sequential variant.
+ * Kernels do not allocate per frame or cell; output arrays are provided
+ * by the caller.
+ *
+ * The dB conversion calls {@link Math#log(double)} for each cell, which
+ * the JIT does not vectorise; speed up over the previous per-cell
+ * implementation comes from reading the flat value array directly and
+ * from processing frames in parallel.  See
+ * <code>src/benchmark/java</code> for a benchmark against the previous
+ * implementation.
+ *
+ */
+public final class SpectrogramDbEngine {
+
+	private final static double NUMln2 = 0.6931471805599453094172321214581765680755;
+	private final static double NUMln10 = 2.3025850929940456840179914546843642076011;
+
+	/* 10/ln(10) */
+	private final static double DB_FACTOR = 10.0 / NUMln10;
+
+	/* dB offset for reference power 4.0e-10 */
+	private final static double DB_OFFSET = -DB_FACTOR * Math.log(4.0e-10);
+
+	/**
+	 * Minimum number of cells processed by a single task
+	 */
+	private final static int MIN_CELLS_PER_TASK = 1 << 14;
+
+	private SpectrogramDbEngine() {
+	}
+
+	/**
+	 * Pre-emphasis (in dB) for each frequency bin.
+	 *
+	 * @param numBins
+	 * @param dy frequency step
+	 * @param preEmphasis pre-emphasis in dB/octave
+	 * @return table of length <code>numBins</code>
+	 */
+	public static double[] preemphasisTable(int numBins, double dy, double preEmphasis) {
+		final double[] retVal = new double[numBins];
+		for(int ifreq = 0; ifreq < numBins; ifreq++) {
+			retVal[ifreq] = (preEmphasis / NUMln2) * Math.log(ifreq * dy / 1000.0);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Convert power values to dB, add pre-emphasis and subtract
+	 * <code>dynamicCompression * frameMaximum</code> from each frame.
+	 *
+	 * @param matrix
+	 * @param preemphasis table from {@link #preemphasisTable(int, double, double)}
+	 * @param dynamicCompression
+	 * @param out output array of at least <code>nx * ny</code> elements, frame-major
+	 * @return maximum pre-emphasised dB value before dynamic compression
+	 */
+	public static double normalise(SpectrogramMatrix matrix, double[] preemphasis,
+			double dynamicCompression, float[] out) {
+		return normalise(matrix, preemphasis, dynamicCompression, out, true);
+	}
+
+	/**
+	 * Convert power values to dB, add pre-emphasis and subtract
+	 * <code>dynamicCompression * frameMaximum</code> from each frame.
+	 *
+	 * @param matrix
+	 * @param preemphasis table from {@link #preemphasisTable(int, double, double)}
+	 * @param dynamicCompression
+	 * @param out output array of at least <code>nx * ny</code> elements, frame-major
+	 * @param parallel process frames in parallel
+	 * @return maximum pre-emphasised dB value before dynamic compression
+	 */
+	public static double normalise(SpectrogramMatrix matrix, double[] preemphasis,
+			double dynamicCompression, float[] out, boolean parallel) {
+		if(!parallel) {
+			return normaliseFrames(matrix, preemphasis, dynamicCompression, out, 0, matrix.getNx());
+		}
+		final NormaliseTask task = new NormaliseTask(matrix, preemphasis, dynamicCompression, out,
+				0, matrix.getNx(), framesPerTask(matrix.getNx(), matrix.getNy()));
+		ForkJoinPool.commonPool().invoke(task);
+		return task.maximum;
+	}
+
+	/**
+	 * Map normalised values to packed RGB pixels.  Pixels are stored
+	 * row-major with the highest frequency bin in the first row.
+	 *
+	 * @param values frame-major normalised values
+	 * @param nx number of frames
+	 * @param ny number of bins
+	 * @param offset value added to each cell before clamping
+	 * @param maximum maximum dB value
+	 * @param dynamicRange
+	 * @param colors colour lookup table
+	 * @param pixels output array of at least <code>nx * ny</code> elements
+	 */
+	public static void colourise(float[] values, int nx, int ny, double offset,
+			double maximum, double dynamicRange, int[] colors, int[] pixels) {
+		colourise(values, nx, ny, offset, maximum, dynamicRange, colors, pixels, true);
+	}
+
+	/**
+	 * Map normalised values to packed RGB pixels.  Pixels are stored
+	 * row-major with the highest frequency bin in the first row.
+	 *
+	 * @param values frame-major normalised values
+	 * @param nx number of frames
+	 * @param ny number of bins
+	 * @param offset value added to each cell before clamping
+	 * @param maximum maximum dB value
+	 * @param dynamicRange
+	 * @param colors colour lookup table
+	 * @param pixels output array of at least <code>nx * ny</code> elements
+	 * @param parallel process frames in parallel
+	 */
+	public static void colourise(float[] values, int nx, int ny, double offset,
+			double maximum, double dynamicRange, int[] colors, int[] pixels, boolean parallel) {
+		if(!parallel) {
+			colouriseFrames(values, nx, ny, offset, maximum, dynamicRange, colors, pixels, 0, nx);
+			return;
+		}
+		ForkJoinPool.commonPool().invoke(new ColouriseTask(values, nx, ny, offset, maximum, dynamicRange,
+				colors, pixels, 0, nx, framesPerTask(nx, ny)));
+	}
+
+	private static int framesPerTask(int nx, int ny) {
+		return Math.max(1, MIN_CELLS_PER_TASK / Math.max(1, ny));
+	}
+
+	private static double normaliseFrames(SpectrogramMatrix matrix, double[] preemphasis, double dynamicCompression,
+			float[] out, int fromFrame, int toFrame) {
+		final int ny = matrix.getNy();
+		final float[] floatData = matrix.floatData();
+		final double[] doubleData = matrix.doubleData();
+
+		double maximum = 0.0;
+		for(int itime = fromFrame; itime < toFrame; itime++) {
+			final int frameOffset = itime * ny;
+			double frameMaximum = 0.0;
+			if(floatData != null) {
+				for(int ifreq = 0; ifreq < ny; ifreq++) {
+					final double db = DB_FACTOR * Math.log(floatData[frameOffset + ifreq] + 1e-30) + DB_OFFSET + preemphasis[ifreq];
+					out[frameOffset + ifreq] = (float)db;
+					frameMaximum = Math.max(frameMaximum, db);
+				}
+			} else {
+				for(int ifreq = 0; ifreq < ny; ifreq++) {
+					final double db = DB_FACTOR * Math.log(doubleData[frameOffset + ifreq] + 1e-30) + DB_OFFSET + preemphasis[ifreq];
+					out[frameOffset + ifreq] = (float)db;
+					frameMaximum = Math.max(frameMaximum, db);
+				}
+			}
+			maximum = Math.max(maximum, frameMaximum);
+
+			if(dynamicCompression != 0.0) {
+				final float dynamicFactor = (float)(-dynamicCompression * frameMaximum);
+				for(int ifreq = 0; ifreq < ny; ifreq++) {
+					out[frameOffset + ifreq] += dynamicFactor;
+				}
+			}
+		}
+		return maximum;
+	}
+
+	private static void colouriseFrames(float[] values, int nx, int ny, double offset, double maximum,
+			double dynamicRange, int[] colors, int[] pixels, int fromFrame, int toFrame) {
+		final double minIntensity = maximum - dynamicRange;
+		final double scaleFactor = colors.length / dynamicRange;
+		final int maxColorIdx = colors.length - 1;
+		final int lastRowOffset = (ny - 1) * nx;
+
+		for(int itime = fromFrame; itime < toFrame; itime++) {
+			final int frameOffset = itime * ny;
+			for(int ifreq = 0; ifreq < ny; ifreq++) {
+				// branches are faster than Math.min/max for doubles here
+				double dataVal = values[frameOffset + ifreq] + offset;
+				if(dataVal < minIntensity) dataVal = minIntensity;
+				if(dataVal > maximum) dataVal = maximum;
+				int colorIdx = (int)Math.round((dataVal - minIntensity) * scaleFactor);
+				if(colorIdx > maxColorIdx) colorIdx = maxColorIdx;
+				pixels[lastRowOffset - ifreq * nx + itime] = colors[colorIdx];
+			}
+		}
+	}
+
+	private final static class NormaliseTask extends RecursiveAction {
+
+		private static final long serialVersionUID = -2410393823547911307L;
+
+		private final SpectrogramMatrix matrix;
+
+		private final double[] preemphasis;
+
+		private final double dynamicCompression;
+
+		private final float[] out;
+
+		private final int fromFrame;
+
+		private final int toFrame;
+
+		private final int framesPerTask;
+
+		private double maximum = 0.0;
+
+		public NormaliseTask(SpectrogramMatrix matrix, double[] preemphasis, double dynamicCompression,
+				float[] out, int fromFrame, int toFrame, int framesPerTask) {
+			super();
+			this.matrix = matrix;
+			this.preemphasis = preemphasis;
+			this.dynamicCompression = dynamicCompression;
+			this.out = out;
+			this.fromFrame = fromFrame;
+			this.toFrame = toFrame;
+			this.framesPerTask = framesPerTask;
+		}
+
+		@Override
+		protected void compute() {
+			if(toFrame - fromFrame <= framesPerTask) {
+				maximum = normaliseFrames(matrix, preemphasis, dynamicCompression, out, fromFrame, toFrame);
+			} else {
+				final int mid = (fromFrame + toFrame) >>> 1;
+				final NormaliseTask left = new NormaliseTask(matrix, preemphasis, dynamicCompression, out,
+						fromFrame, mid, framesPerTask);
+				final NormaliseTask right = new NormaliseTask(matrix, preemphasis, dynamicCompression, out,
+						mid, toFrame, framesPerTask);
+				invokeAll(left, right);
+				maximum = Math.max(left.maximum, right.maximum);
+			}
+		}
+
+	}
+
+	private final static class ColouriseTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 5169282713924536460L;
+
+		private final float[] values;
+
+		private final int nx;
+
+		private final int ny;
+
+		private final double offset;
+
+		private final double maximum;
+
+		private final double dynamicRange;
+
+		private final int[] colors;
+
+		private final int[] pixels;
+
+		private final int fromFrame;
+
+		private final int toFrame;
+
+		private final int framesPerTask;
+
+		public ColouriseTask(float[] values, int nx, int ny, double offset, double maximum, double dynamicRange,
+				int[] colors, int[] pixels, int fromFrame, int toFrame, int framesPerTask) {
+			super();
+			this.values = values;
+			this.nx = nx;
+			this.ny = ny;
+			this.offset = offset;
+			this.maximum = maximum;
+			this.dynamicRange = dynamicRange;
+			this.colors = colors;
+			this.pixels = pixels;
+			this.fromFrame = fromFrame;
+			this.toFrame = toFrame;
+			this.framesPerTask = framesPerTask;
+		}
+
+		@Override
+		protected void compute() {
+			if(toFrame - fromFrame <= framesPerTask) {
+				colouriseFrames(values, nx, ny, offset, maximum, dynamicRange, colors, pixels, fromFrame, toFrame);
+			} else {
+				final int mid = (fromFrame + toFrame) >>> 1;
+				invokeAll(
+						new ColouriseTask(values, nx, ny, offset, maximum, dynamicRange, colors, pixels,
+								fromFrame, mid, framesPerTask),
+						new ColouriseTask(values, nx, ny, offset, maximum, dynamicRange, colors, pixels,
+								mid, toFrame, framesPerTask));
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat.painters;
+
+import ca.hedlund.jpraat.binding.fon.Spectrogram;
+
+/**
+ * Immutable snapshot of the power values of a {@link Spectrogram}.
+ * Values are copied out of the native object once into a flat,
+ * frame-major primitive array (all bins of frame 0, then all bins
+ * of frame 1, etc.)  Once a snapshot has been created the native
+ * spectrogram is no longer required and may be released.
+ *
+ * Frame and bin indices are zero-based.
+ *
+ */
+public final class SpectrogramMatrix {
+
+	private final double xmin;
+
+	private final double xmax;
+
+	private final int nx;
+
+	private final double dx;
+
+	/* time of first frame (frame centre) */
+	private final double x1;
+
+	private final int ny;
+
+	private final double dy;
+
+	/* Only one of floatData/doubleData is used */
+	private final float[] floatData;
+
+	private final double[] doubleData;
+
+	/**
+	 * Copy spectrogram values using single precision.
+	 *
+	 * @param spectrogram
+	 * @return snapshot
+	 */
+	public static SpectrogramMatrix copyOf(Spectrogram spectrogram) {
+		return copyOf(spectrogram, true);
+	}
+
+	/**
+	 * Copy spectrogram values.
+	 *
+	 * @param spectrogram
+	 * @param floatPrecision store values as <code>float</code>, halving
+	 *  memory use
+	 * @return snapshot
+	 */
+	public static SpectrogramMatrix copyOf(Spectrogram spectrogram, boolean floatPrecision) {
+		final int nx = (int)spectrogram.getNx();
+		final int ny = (int)spectrogram.getNy();
+
+		float[] floatData = null;
+		double[] doubleData = null;
+		if(floatPrecision) {
+			floatData = new float[nx * ny];
+		} else {
+			doubleData = new double[nx * ny];
+		}
+
+		// Praat stores z[bin][frame] with one-based indices
+		for(int ifreq = 0; ifreq < ny; ifreq++) {
+			for(int itime = 0; itime < nx; itime++) {
+				final double value = spectrogram.getZ(itime+1, ifreq+1);
+				if(floatPrecision) {
+					floatData[itime * ny + ifreq] = (float)value;
+				} else {
+					doubleData[itime * ny + ifreq] = value;
+				}
+			}
+		}
+
+		return new SpectrogramMatrix(spectrogram.getXMin(), spectrogram.getXMax(), nx, spectrogram.getDx(),
+				spectrogram.getX1(), ny, spectrogram.getDy(), floatData, doubleData);
+	}
+
+	/**
+	 * Create matrix from frame-major single precision values.
+	 *
+	 * @param xmin
+	 * @param xmax
+	 * @param dx
+	 * @param x1
+	 * @param ny
+	 * @param dy
+	 * @param values all bins of frame 0, then all bins of frame 1, etc.
+	 * @return matrix using the given array
+	 */
+	static SpectrogramMatrix of(double xmin, double xmax, double dx, double x1, int ny, double dy, float[] values) {
+		return new SpectrogramMatrix(xmin, xmax, values.length / ny, dx, x1, ny, dy, values, null);
+	}
+
+	private SpectrogramMatrix(double xmin, double xmax, int nx, double dx, double x1, int ny, double dy,
+			float[] floatData, double[] doubleData) {
+		super();
+		this.xmin = xmin;
+		this.xmax = xmax;
+		this.nx = nx;
+		this.dx = dx;
+		this.x1 = x1;
+		this.ny = ny;
+		this.dy = dy;
+		this.floatData = floatData;
+		this.doubleData = doubleData;
+	}
+
+	public double getXMin() {
+		return xmin;
+	}
+
+	public double getXMax() {
+		return xmax;
+	}
+
+	/**
+	 * @return number of frames
+	 */
+	public int getNx() {
+		return nx;
+	}
+
+	/**
+	 * @return time step between frames
+	 */
+	public double getDx() {
+		return dx;
+	}
+
+	/**
+	 * Time of the first frame.  Frames are centred at
+	 * <code>x1 + i * dx</code> and need not cover the full
+	 * <code>[xmin, xmax]</code> range.
+	 *
+	 * @return time of first frame
+	 */
+	public double getX1() {
+		return x1;
+	}
+
+	/**
+	 * @return number of frequency bins
+	 */
+	public int getNy() {
+		return ny;
+	}
+
+	/**
+	 * @return frequency step between bins
+	 */
+	public double getDy() {
+		return dy;
+	}
+
+	public boolean isFloatPrecision() {
+		return floatData != null;
+	}
+
+	/**
+	 * Power value for given frame and bin.
+	 *
+	 * @param frame zero-based frame index
+	 * @param bin zero-based frequency bin
+	 * @return value
+	 */
+	public double getZ(int frame, int bin) {
+		final int idx = frame * ny + bin;
+		return (floatData != null ? floatData[idx] : doubleData[idx]);
+	}
+
+	/**
+	 * @return single precision values or <code>null</code>
+	 */
+	float[] floatData() {
+		return floatData;
+	}
+
+	/**
+	 * @return double precision values or <code>null</code>
+	 */
+	double[] doubleData() {
+		return doubleData;
+	}
+
+	/**
+	 * Copy all values of a frame into the given array.
+	 *
+	 * @param frame zero-based frame index
+	 * @param dest array of at least {@link #getNy()} elements
+	 */
+	public void getFrame(int frame, double[] dest) {
+		final int offset = frame * ny;
+		if(floatData != null) {
+			for(int i = 0; i < ny; i++) dest[i] = floatData[offset + i];
+		} else {
+			System.arraycopy(doubleData, offset, dest, 0, ny);
+		}
+	}
+
+}
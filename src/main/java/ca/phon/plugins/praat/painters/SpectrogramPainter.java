@@ -21,7 +21,10 @@ import ca.phon.ui.painter.BufferedPainter;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.*;
+import java.lang.ref.WeakReference;
 import java.text.NumberFormat;
+import java.util.*;
 
 /**
  * Spectrogram painter.
@@ -29,13 +32,22 @@ import java.text.NumberFormat;
  */
 public class SpectrogramPainter extends BufferedPainter<Spectrogram> implements PraatPainter<Spectrogram> {
 	
-	private final static double NUMln2 = 0.6931471805599453094172321214581765680755;
-	private final static double NUMln10 = 2.3025850929940456840179914546843642076011;
-	
 	private SpectrogramSettings settings;
 	
 	private ColorMap colorMap = ColorMap.getGreyscale(255);
 	
+	/* Packed RGB values of colorMap */
+	private volatile int[] colors = colorMap.getColors();
+	
+	/* Values copied from the last painted native spectrogram, compared by identity */
+	private WeakReference<Spectrogram> copiedSpectrogram = new WeakReference<>(null);
+	
+	private SpectrogramMatrix copiedMatrix;
+	
+	/* Normalised values, re-used while pre-emphasis and dynamic compression are unchanged */
+	private final Map<SpectrogramMatrix, NormalisedSpectrogram> normalisedCache =
+			Collections.synchronizedMap(new WeakHashMap<>());
+	
 	public SpectrogramPainter() {
 		this(new SpectrogramSettings());
 	}
@@ -60,16 +72,19 @@ public class SpectrogramPainter extends BufferedPainter<Spectrogram> implements
 
 	public void setColorMap(ColorMap colorMap) {
 		this.colorMap = colorMap;
+		this.colors = colorMap.getColors();
 	}
 	
-	private double preEmphasis(double dy, int ifreq) {
-		return (settings.getPreEmphasis() / NUMln2) * Math.log(ifreq * dy / 1000.0);
+	/**
+	 * Packed RGB values of the colour map.  The returned array is shared
+	 * and must not be modified.
+	 * 
+	 * @return colour table
+	 */
+	int[] getColorTable() {
+		return colors;
 	}
 	
-	private double dbValue(double preemphasis, double value) {
-		return (10.0/NUMln10) * Math.log((value + 1e-30) / 4.0e-10) + preemphasis;  // dB
-	}
-
 	@Override
 	public void paintGarnish(Spectrogram spectrogram, Graphics2D g2d, Rectangle2D bounds, int location) {
 		final double startFreq = 0;
@@ -119,78 +134,108 @@ public class SpectrogramPainter extends BufferedPainter<Spectrogram> implements
 	 * @param bounds
 	 */
 	protected void paintSpectrogram(Spectrogram spectrogram, Graphics2D g2d, Rectangle2D bounds) {
+		paintSpectrogram(getMatrix(spectrogram), g2d, bounds);
+	}
+	
+	/**
+	 * Return values of the given spectrogram.  Values are copied
+	 * from native memory only when the spectrogram changes, so that
+	 * normalised values are re-used on repaint.
+	 * 
+	 * @param spectrogram
+	 * @return spectrogram values
+	 */
+	private synchronized SpectrogramMatrix getMatrix(Spectrogram spectrogram) {
+		if(copiedMatrix == null || copiedSpectrogram.get() != spectrogram) {
+			copiedMatrix = SpectrogramMatrix.copyOf(spectrogram);
+			copiedSpectrogram = new WeakReference<>(spectrogram);
+		}
+		return copiedMatrix;
+	}
+	
+	/**
+	 * Paint spectrogram snapshot to graphics context
+	 * 
+	 * @param matrix
+	 * @param g2d
+	 * @param bounds
+	 */
+	protected void paintSpectrogram(SpectrogramMatrix matrix, Graphics2D g2d, Rectangle2D bounds) {
+		final NormalisedSpectrogram normalised = normalise(matrix);
+		paintSpectrogram(normalised, normalised.getMaximum(), g2d, bounds);
+	}
+	
+	/**
+	 * Return normalised intensity values for the given spectrogram.  Values
+	 * are cached and only re-computed when pre-emphasis or dynamic compression
+	 * change.
+	 * 
+	 * @param matrix
+	 * @return normalised values
+	 */
+	protected NormalisedSpectrogram normalise(SpectrogramMatrix matrix) {
+		final double preEmphasis = settings.getPreEmphasis();
+		final double dynamicCompression = settings.getDynamicCompression();
+		
+		NormalisedSpectrogram retVal = normalisedCache.get(matrix);
+		if(retVal == null || !retVal.isComputedWith(preEmphasis, dynamicCompression)) {
+			retVal = computeNormalised(matrix, preEmphasis, dynamicCompression);
+			normalisedCache.put(matrix, retVal);
+		}
+		return retVal;
+	}
+	
+	/**
+	 * Compute pre-emphasised intensity values (in dB) and apply frame dependent
+	 * part of dynamic compression.
+	 * 
+	 * @param matrix
+	 * @param preEmphasis
+	 * @param dynamicCompression
+	 * @return normalised values
+	 */
+	private NormalisedSpectrogram computeNormalised(SpectrogramMatrix matrix, double preEmphasis, double dynamicCompression) {
 		/*
 		 * Paint method modified from fon/Spectrogram.cpp
 		 */
-		final int numFrames = (int)spectrogram.getNx();
-    	final int numBins = (int)spectrogram.getNy();
-    	final double[] preemphasisFactor = new double[numBins];
-    	final double[] dynamicFactor = new double[numFrames];
-    	
-    	final double[][] dbData = new double[numFrames][];
-    	
-    	for(int ifreq = 0; ifreq < numBins; ifreq++) {
-			preemphasisFactor[ifreq] = preEmphasis(spectrogram.getDy(), ifreq);
-			for(int itime = 0; itime < numFrames; itime++) {
-				if(dbData[itime] == null) {
-					dbData[itime] = new double[numBins];
-				}
-				double value = spectrogram.getZ(itime+1, ifreq+1);
-				value = dbValue(preemphasisFactor[ifreq], value);
-				if(value > dynamicFactor[itime]) dynamicFactor[itime] = value;
-				dbData[itime][ifreq] = value;
-			}
-    	}
-    	
-    	// autoscaling
-    	double maximum = 0.0;
-		for (int itime = 0; itime < numFrames; itime ++)
-			if (dynamicFactor [itime] > maximum) maximum = dynamicFactor [itime];
-		
-		// dynamic compression
-		for (int itime = 0; itime < numFrames; itime ++) {
-			dynamicFactor [itime] = settings.getDynamicCompression() * (maximum - dynamicFactor [itime]);
-			for (int ifreq = 0; ifreq < numBins; ifreq ++)
-				dbData [itime] [ifreq] += dynamicFactor [itime];
-		}
-		
-		double minIntensity = maximum - settings.getDynamicRange();
+		final double[] preemphasisTable = SpectrogramDbEngine.preemphasisTable(matrix.getNy(), matrix.getDy(), preEmphasis);
+		final float[] values = new float[matrix.getNx() * matrix.getNy()];
+		final double maximum = SpectrogramDbEngine.normalise(matrix, preemphasisTable, dynamicCompression, values);
+		return new NormalisedSpectrogram(matrix.getNx(), matrix.getNy(), values, maximum, preEmphasis, dynamicCompression);
+	}
+	
+	/**
+	 * Colourise normalised values and paint to graphics context.
+	 * 
+	 * @param normalised
+	 * @param maximum dB value used for autoscaling
+	 * @param g2d
+	 * @param bounds
+	 */
+	protected void paintSpectrogram(NormalisedSpectrogram normalised, double maximum, Graphics2D g2d, Rectangle2D bounds) {
+		final int numFrames = normalised.getNx();
+		final int numBins = normalised.getNy();
+		if(numFrames == 0 || numBins == 0) return;
 		
+		// write pixels directly into image raster, highest frequency in first row
+		final BufferedImage img = new BufferedImage(numFrames, numBins, BufferedImage.TYPE_INT_RGB);
+		final int[] pixels = ((DataBufferInt)img.getRaster().getDataBuffer()).getData();
+		SpectrogramDbEngine.colourise(normalised.getValues(), numFrames, numBins,
+				normalised.getDynamicCompression() * maximum, maximum, settings.getDynamicRange(),
+				colors, pixels);
 		
-		double x = Math.floor(bounds.getX());
-		double y = Math.ceil(bounds.getY() + bounds.getHeight());
-		double width = Math.ceil(bounds.getWidth());
-		double height = Math.ceil(bounds.getHeight());
+		// cells are painted blocky, see TiledSpectrogramPainter#renderInterpolated for interpolated rendering
+		final Object oldInterpolation = g2d.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+		g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
 		
-		double cellWidth = (width / numFrames);
-		double cellHeight = (height/numBins);
+		final int x = (int)Math.floor(bounds.getX());
+		final int y = (int)Math.floor(bounds.getY());
+		final int width = (int)Math.ceil(bounds.getX() + bounds.getWidth()) - x;
+		final int height = (int)Math.ceil(bounds.getY() + bounds.getHeight()) - y;
+		g2d.drawImage(img, x, y, width, height, null);
 		
-		 double scaleFactor = (colorMap.size() / settings.getDynamicRange());
-         for (int i = 0; i < numFrames; i++) {                
-             for (int j = numBins-1; j >= 0; j--) {
-             	double dataVal = dbData[i][j];
-             	if(dataVal < minIntensity)
-             		dataVal = minIntensity;
-             	if(dataVal > maximum)
-             		dataVal = maximum;
-                 int grey = (int)Math.round( (dataVal - minIntensity) * scaleFactor);
-                 if(grey >= colorMap.size())
-                 	grey = colorMap.size()-1;
-                 
-                 int cVal = colorMap.getColor(grey);
-                 
-                 Color c = new Color(cVal >> 16 & 0xff, cVal >> 8 & 0xff, cVal & 0xff);
-                 g2d.setColor(c);
-                 
-                 // TODO interpolate (i.e., calculate transparency of each cell)
-                 
-                 final Rectangle2D cellRect = new Rectangle2D.Double(
-                		 x + ((double)i * cellWidth), 
-                		 y - ((double)(j+1) * cellHeight),
-                		 cellWidth, cellHeight);
-                 g2d.fill(cellRect);
-             }
-         }
+		if(oldInterpolation != null)
+			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, oldInterpolation);
 	}
 	
 	@Override
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat.painters;
+
+import java.awt.image.*;
+import java.util.*;
+
+/**
+ * Mipmap style pyramid of rendered spectrogram images.  Level 0 is the
+ * full resolution image (one column per frame), each successive level
+ * halves the number of columns by averaging adjacent columns.  The
+ * number of rows (frequency bins) is the same for all levels.
+ *
+ * Images must be of type {@link BufferedImage#TYPE_INT_ARGB}.
+ *
+ */
+public final class SpectrogramPyramid {
+
+	/**
+	 * Levels are not reduced below this width
+	 */
+	private final static int MIN_LEVEL_WIDTH = 64;
+
+	private final BufferedImage[] levels;
+
+	/**
+	 * Create a pyramid with a single full resolution level.
+	 *
+	 * @param base
+	 */
+	public SpectrogramPyramid(BufferedImage base) {
+		this(new BufferedImage[] { base });
+	}
+
+	private SpectrogramPyramid(BufferedImage[] levels) {
+		super();
+		this.levels = levels;
+	}
+
+	/**
+	 * Build all levels of pyramid from the given full resolution image.
+	 *
+	 * @param base
+	 * @return pyramid
+	 */
+	public static SpectrogramPyramid build(BufferedImage base) {
+		final List<BufferedImage> levels = new ArrayList<>();
+		levels.add(base);
+		BufferedImage level = base;
+		while(level.getWidth() / 2 >= MIN_LEVEL_WIDTH) {
+			level = reduce(level);
+			levels.add(level);
+		}
+		return new SpectrogramPyramid(levels.toArray(new BufferedImage[0]));
+	}
+
+	/**
+	 * Halve number of columns in image by averaging adjacent columns.
+	 *
+	 * @param img
+	 * @return reduced image
+	 */
+	static BufferedImage reduce(BufferedImage img) {
+		final int width = img.getWidth();
+		final int height = img.getHeight();
+		final int reducedWidth = (width + 1) / 2;
+
+		final BufferedImage retVal = new BufferedImage(reducedWidth, height, BufferedImage.TYPE_INT_ARGB);
+		final int[] src = ((DataBufferInt)img.getRaster().getDataBuffer()).getData();
+		final int[] dest = ((DataBufferInt)retVal.getRaster().getDataBuffer()).getData();
+
+		for(int y = 0; y < height; y++) {
+			final int srcRow = y * width;
+			final int destRow = y * reducedWidth;
+			for(int x = 0; x < reducedWidth; x++) {
+				final int p1 = src[srcRow + 2 * x];
+				final int p2 = (2 * x + 1 < width ? src[srcRow + 2 * x + 1] : p1);
+				dest[destRow + x] =
+						(((((p1 >>> 24) & 0xff) + ((p2 >>> 24) & 0xff)) >> 1) << 24)
+						| (((((p1 >> 16) & 0xff) + ((p2 >> 16) & 0xff)) >> 1) << 16)
+						| (((((p1 >> 8) & 0xff) + ((p2 >> 8) & 0xff)) >> 1) << 8)
+						| (((p1 & 0xff) + (p2 & 0xff)) >> 1);
+			}
+		}
+		return retVal;
+	}
+
+	public int getNumLevels() {
+		return levels.length;
+	}
+
+	public BufferedImage getLevel(int level) {
+		return levels[level];
+	}
+
+	/**
+	 * Return the smallest level which is at least as wide as the given
+	 * display width, or the full resolution level if the display is wider.
+	 *
+	 * @param displayWidth width (in pixels) of the full spectrogram on screen
+	 * @return image
+	 */
+	public BufferedImage getLevelForWidth(double displayWidth) {
+		for(int i = levels.length - 1; i > 0; i--) {
+			if(levels[i].getWidth() >= displayWidth) return levels[i];
+		}
+		return levels[0];
+	}
+
+}
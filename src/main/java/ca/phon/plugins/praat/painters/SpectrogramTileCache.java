@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat.painters;
+
+import ca.phon.plugins.praat.*;
+import ca.phon.util.PrefHelper;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.*;
+
+/**
+ * Cache of rendered, fixed-width viewport tiles for a spectrogram display.
+ * The displayed spectrogram is divided into columns of {@link #TILE_WIDTH}
+ * pixels at the current zoom.  Only tiles intersecting the clip are
+ * rendered; rendered tiles are re-used while scrolling.  The cache is
+ * bounded, least recently used tiles are discarded first.
+ *
+ * Tiles are keyed by tile index, display position and size (i.e., zoom) and are
+ * discarded when the underlying rendered spectrogram changes.  This
+ * class is intended to be used on the EDT only.
+ *
+ * When interpolation is enabled, tiles are first painted from the
+ * pyramid (i.e., blocky cells) and re-rendered at display resolution
+ * with bilinear interpolation on the analysis executor.  Interpolated
+ * tiles replace the blocky tiles when ready.
+ *
+ */
+public class SpectrogramTileCache {
+
+	public final static int TILE_WIDTH = 256;
+
+	/**
+	 * Maximum number of cached tiles
+	 */
+	public final static String MAX_TILES_PROP = SpectrogramTileCache.class.getName() + ".maxTiles";
+	public final static int DEFAULT_MAX_TILES = 64;
+
+	private final TiledSpectrogramPainter painter;
+
+	private final int maxTiles;
+
+	private final Map<TileKey, Tile> tiles;
+
+	private boolean interpolate = false;
+
+	private SpectrogramPyramid pyramid;
+
+	public SpectrogramTileCache(TiledSpectrogramPainter painter) {
+		this(painter, PrefHelper.getInt(MAX_TILES_PROP, DEFAULT_MAX_TILES));
+	}
+
+	public SpectrogramTileCache(TiledSpectrogramPainter painter, int maxTiles) {
+		super();
+		this.painter = painter;
+		this.maxTiles = Math.max(1, maxTiles);
+		this.tiles = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<TileKey, Tile> eldest) {
+				return size() > SpectrogramTileCache.this.maxTiles;
+			}
+
+		};
+	}
+
+	public TiledSpectrogramPainter getPainter() {
+		return painter;
+	}
+
+	public int getMaxTiles() {
+		return maxTiles;
+	}
+
+	public boolean isInterpolate() {
+		return interpolate;
+	}
+
+	/**
+	 * Enable/disable bilinear interpolation of tiles.  Cached tiles
+	 * are discarded if the value changes.
+	 *
+	 * @param interpolate
+	 */
+	public void setInterpolate(boolean interpolate) {
+		if(this.interpolate != interpolate) {
+			this.interpolate = interpolate;
+			tiles.clear();
+		}
+	}
+
+	/**
+	 * Discard all cached tiles.
+	 */
+	public void clear() {
+		tiles.clear();
+		pyramid = null;
+	}
+
+	/**
+	 * Paint visible tiles of spectrogram.
+	 *
+	 * @param spectrogram
+	 * @param g2d
+	 * @param bounds bounds of full spectrogram
+	 */
+	public void paint(TiledSpectrogram spectrogram, Graphics2D g2d, Rectangle2D bounds) {
+		final SpectrogramPyramid currentPyramid = painter.getPyramid(spectrogram);
+		if(currentPyramid == null) return;
+		if(currentPyramid != pyramid) {
+			tiles.clear();
+			pyramid = currentPyramid;
+		}
+
+		final int originX = (int)Math.floor(bounds.getX());
+		final int originY = (int)Math.floor(bounds.getY());
+		final int width = (int)Math.ceil(bounds.getMaxX()) - originX;
+		final int height = (int)Math.ceil(bounds.getMaxY()) - originY;
+		if(width <= 0 || height <= 0) return;
+
+		final Rectangle clipBounds = g2d.getClipBounds();
+		final Rectangle area = (clipBounds != null
+				? clipBounds.intersection(new Rectangle(originX, originY, width, height))
+				: new Rectangle(originX, originY, width, height));
+		if(area.isEmpty()) return;
+
+		final int numTiles = (width + TILE_WIDTH - 1) / TILE_WIDTH;
+		final int firstTile = Math.max(0, (area.x - originX) / TILE_WIDTH);
+		final int lastTile = Math.min(numTiles - 1, (area.x + area.width - 1 - originX) / TILE_WIDTH);
+
+		for(int i = firstTile; i <= lastTile; i++) {
+			final TileKey key = new TileKey(i, bounds.getX(), bounds.getWidth(), height);
+			Tile tile = tiles.get(key);
+			if(tile == null) {
+				tile = new Tile(renderTile(currentPyramid, bounds, originX, originY, i, width, height));
+				tiles.put(key, tile);
+			}
+			if(interpolate && !tile.interpolated && !tile.pending) {
+				final int tileWidth = Math.min(TILE_WIDTH, width - i * TILE_WIDTH);
+				scheduleInterpolation(tile, currentPyramid, bounds,
+						new Rectangle(originX + i * TILE_WIDTH, originY, tileWidth, height));
+			}
+			g2d.drawImage(tile.image, originX + i * TILE_WIDTH, originY, null);
+		}
+	}
+
+	private BufferedImage renderTile(SpectrogramPyramid pyramid, Rectangle2D bounds,
+			int originX, int originY, int tileIdx, int width, int height) {
+		final int tileX = originX + tileIdx * TILE_WIDTH;
+		final int tileWidth = Math.min(TILE_WIDTH, width - tileIdx * TILE_WIDTH);
+
+		final BufferedImage retVal = new BufferedImage(tileWidth, height, BufferedImage.TYPE_INT_ARGB);
+		final Graphics2D g2d = retVal.createGraphics();
+		g2d.translate(-tileX, -originY);
+		g2d.setClip(tileX, originY, tileWidth, height);
+		painter.paintPyramid(pyramid, g2d, bounds);
+		g2d.dispose();
+
+		return retVal;
+	}
+
+	private void scheduleInterpolation(Tile tile, SpectrogramPyramid tilePyramid, Rectangle2D bounds, Rectangle region) {
+		tile.pending = true;
+		final Rectangle2D displayBounds = (Rectangle2D)bounds.clone();
+		AnalysisExecutor.getInstance().submit("Interpolate spectrogram", () -> {
+			final BufferedImage img = painter.renderInterpolated(tilePyramid, displayBounds, region);
+			SwingUtilities.invokeLater( () -> {
+				tile.pending = false;
+				if(img == null || !interpolate || tilePyramid != pyramid) return;
+				tile.image = img;
+				tile.interpolated = true;
+				final Runnable callback = painter.getRepaintCallback();
+				if(callback != null) callback.run();
+			});
+		});
+	}
+
+	private final static class Tile {
+
+		private BufferedImage image;
+
+		private boolean interpolated = false;
+
+		private boolean pending = false;
+
+		public Tile(BufferedImage image) {
+			super();
+			this.image = image;
+		}
+
+	}
+
+	private final static class TileKey {
+
+		private final int index;
+
+		private final double displayX;
+
+		private final double displayWidth;
+
+		private final int displayHeight;
+
+		public TileKey(int index, double displayX, double displayWidth, int displayHeight) {
+			super();
+			this.index = index;
+			this.displayX = displayX;
+			this.displayWidth = displayWidth;
+			this.displayHeight = displayHeight;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof TileKey)) return false;
+			final TileKey other = (TileKey)obj;
+			return index == other.index
+					&& Double.compare(displayX, other.displayX) == 0
+					&& Double.compare(displayWidth, other.displayWidth) == 0
+					&& displayHeight == other.displayHeight;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(index, displayX, displayWidth, displayHeight);
+		}
+
+	}
+
+}
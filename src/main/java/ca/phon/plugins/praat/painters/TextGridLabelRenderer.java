@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat.painters;
+
+import ca.phon.util.PrefHelper;
+
+import java.awt.*;
+import java.awt.font.*;
+import java.awt.geom.*;
+import java.util.*;
+
+/**
+ * Renders TextGrid interval labels centred in a rectangle.  Measured
+ * {@link TextLayout}s are cached per label text, font and font render
+ * context in a bounded cache, least recently used layouts are discarded
+ * first.  Labels which do not fit are truncated to the longest prefix
+ * which fits followed by an ellipsis, or not drawn if the ellipsis does
+ * not fit either.  Truncated layouts are cached per label, font, font
+ * render context and available width (rounded down to
+ * {@value #WIDTH_BUCKET} pixels.)
+ *
+ * This class is intended to be used on the EDT only.
+ *
+ */
+public class TextGridLabelRenderer {
+
+	/**
+	 * Maximum number of cached label layouts
+	 */
+	public final static String MAX_LAYOUTS_PROP = TextGridLabelRenderer.class.getName() + ".maxLayouts";
+	public final static int DEFAULT_MAX_LAYOUTS = 4096;
+
+	private final static String ELLIPSIS = "...";
+
+	/* Available width is rounded down to a multiple of this value when truncating labels */
+	private final static int WIDTH_BUCKET = 4;
+
+	/* Cached when no part of the label fits */
+	private final static TextLayout NONE = new TextLayout(" ", new Font(Font.DIALOG, Font.PLAIN, 1),
+			new FontRenderContext(null, false, false));
+
+	private final int maxLayouts;
+
+	private final Map<LayoutKey, TextLayout> layouts;
+
+	private final Map<TruncatedKey, TextLayout> truncatedLayouts;
+
+	public TextGridLabelRenderer() {
+		this(PrefHelper.getInt(MAX_LAYOUTS_PROP, DEFAULT_MAX_LAYOUTS));
+	}
+
+	public TextGridLabelRenderer(int maxLayouts) {
+		super();
+		this.maxLayouts = Math.max(1, maxLayouts);
+		this.layouts = new LinkedHashMap<>(256, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<LayoutKey, TextLayout> eldest) {
+				return size() > TextGridLabelRenderer.this.maxLayouts;
+			}
+
+		};
+		this.truncatedLayouts = new LinkedHashMap<>(256, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<TruncatedKey, TextLayout> eldest) {
+				return size() > TextGridLabelRenderer.this.maxLayouts;
+			}
+
+		};
+	}
+
+	public int getMaxLayouts() {
+		return maxLayouts;
+	}
+
+	/**
+	 * Return layout for text.
+	 *
+	 * @param text
+	 * @param font
+	 * @param frc
+	 * @return layout or <code>null</code> if text is empty
+	 */
+	public TextLayout getLayout(String text, Font font, FontRenderContext frc) {
+		if(text == null || text.isEmpty()) return null;
+		final LayoutKey key = new LayoutKey(text, font, frc);
+		TextLayout retVal = layouts.get(key);
+		if(retVal == null) {
+			retVal = new TextLayout(text, font, frc);
+			layouts.put(key, retVal);
+		}
+		return retVal;
+	}
+
+	/**
+	 * @param text
+	 * @param font
+	 * @param frc
+	 * @return advance width of text
+	 */
+	public double getWidth(String text, Font font, FontRenderContext frc) {
+		final TextLayout layout = getLayout(text, font, frc);
+		return (layout != null ? layout.getAdvance() : 0.0);
+	}
+
+	/**
+	 * @param text
+	 * @param font
+	 * @param frc
+	 * @param width
+	 * @return <code>true</code> if text fits in given width
+	 */
+	public boolean fits(String text, Font font, FontRenderContext frc, double width) {
+		return getWidth(text, font, frc) <= width;
+	}
+
+	/**
+	 * Draw label centred in bounds using the current colour of the graphics context.
+	 *
+	 * @param g2d
+	 * @param text
+	 * @param font
+	 * @param bounds
+	 * @return <code>true</code> if the full label was drawn
+	 */
+	public boolean paintLabel(Graphics2D g2d, String text, Font font, Rectangle2D bounds) {
+		final FontRenderContext frc = getFontRenderContext(g2d);
+		TextLayout layout = getLayout(text, font, frc);
+		if(layout == null) return true;
+
+		boolean retVal = true;
+		if(layout.getAdvance() > bounds.getWidth()) {
+			retVal = false;
+			layout = getTruncatedLayout(text, font, frc, bounds.getWidth());
+			if(layout == null) return retVal;
+		}
+
+		final float x = (float)(bounds.getCenterX() - layout.getAdvance() / 2.0);
+		final float y = (float)(bounds.getCenterY() + (layout.getAscent() - layout.getDescent()) / 2.0);
+		layout.draw(g2d, x, y);
+		return retVal;
+	}
+
+	/**
+	 * Layout of the longest prefix of text, followed by an ellipsis,
+	 * which fits in the given width.
+	 *
+	 * @param text
+	 * @param font
+	 * @param frc
+	 * @param width
+	 * @return truncated layout or <code>null</code> if not even the ellipsis fits
+	 */
+	public TextLayout getTruncatedLayout(String text, Font font, FontRenderContext frc, double width) {
+		if(text == null || text.isEmpty()) return null;
+		final int bucket = (int)Math.floor(width / WIDTH_BUCKET);
+		final TruncatedKey key = new TruncatedKey(new LayoutKey(text, font, frc), bucket);
+		TextLayout retVal = truncatedLayouts.get(key);
+		if(retVal == null) {
+			retVal = truncate(text, font, frc, bucket * WIDTH_BUCKET);
+			truncatedLayouts.put(key, (retVal != null ? retVal : NONE));
+		}
+		return (retVal != NONE ? retVal : null);
+	}
+
+	private TextLayout truncate(String text, Font font, FontRenderContext frc, double width) {
+		final TextLayout ellipsis = getLayout(ELLIPSIS, font, frc);
+		if(ellipsis.getAdvance() > width) return null;
+
+		// binary search for longest prefix which fits
+		TextLayout retVal = ellipsis;
+		int low = 1;
+		int high = text.length() - 1;
+		while(low <= high) {
+			final int mid = (low + high) >>> 1;
+			final String prefix = prefix(text, mid);
+			if(prefix.isEmpty()) {
+				low = mid + 1;
+				continue;
+			}
+			final TextLayout layout = new TextLayout(prefix + ELLIPSIS, font, frc);
+			if(layout.getAdvance() <= width) {
+				retVal = layout;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return retVal;
+	}
+
+	/*
+	 * First len chars of text without splitting surrogate pairs or
+	 * keeping trailing whitespace
+	 */
+	private static String prefix(String text, int len) {
+		int end = len;
+		if(end > 0 && end < text.length() && Character.isLowSurrogate(text.charAt(end))) --end;
+		while(end > 0 && Character.isWhitespace(text.charAt(end - 1))) --end;
+		return text.substring(0, end);
+	}
+
+	/**
+	 * Font render context of graphics without translation, so that
+	 * layouts may be re-used at any position.
+	 *
+	 * @param g2d
+	 * @return font render context
+	 */
+	public static FontRenderContext getFontRenderContext(Graphics2D g2d) {
+		final FontRenderContext frc = g2d.getFontRenderContext();
+		if((frc.getTransformType() & AffineTransform.TYPE_TRANSLATION) == 0) return frc;
+
+		final AffineTransform transform = frc.getTransform();
+		transform.setTransform(transform.getScaleX(), transform.getShearY(),
+				transform.getShearX(), transform.getScaleY(), 0.0, 0.0);
+		return new FontRenderContext(transform, frc.getAntiAliasingHint(), frc.getFractionalMetricsHint());
+	}
+
+	/**
+	 * Discard all cached layouts.
+	 */
+	public void clear() {
+		layouts.clear();
+		truncatedLayouts.clear();
+	}
+
+	private final static class LayoutKey {
+
+		private final String text;
+
+		private final Font font;
+
+		private final FontRenderContext frc;
+
+		public LayoutKey(String text, Font font, FontRenderContext frc) {
+			super();
+			this.text = text;
+			this.font = font;
+			this.frc = frc;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof LayoutKey)) return false;
+			final LayoutKey other = (LayoutKey)obj;
+			return text.equals(other.text) && font.equals(other.font) && frc.equals(other.frc);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * text.hashCode() + font.hashCode()) + frc.hashCode();
+		}
+
+	}
+
+	private final static class TruncatedKey {
+
+		private final LayoutKey layoutKey;
+
+		private final int widthBucket;
+
+		public TruncatedKey(LayoutKey layoutKey, int widthBucket) {
+			super();
+			this.layoutKey = layoutKey;
+			this.widthBucket = widthBucket;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof TruncatedKey)) return false;
+			final TruncatedKey other = (TruncatedKey)obj;
+			return widthBucket == other.widthBucket && layoutKey.equals(other.layoutKey);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * layoutKey.hashCode() + widthBucket;
+		}
+
+	}
+
+}
@@ -16,7 +16,7 @@
 package ca.phon.plugins.praat.painters;
 
 import ca.hedlund.jpraat.binding.fon.*;
-import ca.hedlund.jpraat.exceptions.PraatException;
+import ca.phon.plugins.praat.TextGridSnapshot;
 import ca.phon.ui.fonts.FontPreferences;
 import ca.phon.ui.painter.BufferedPainter;
 
@@ -24,12 +24,15 @@ import java.awt.*;
 import java.awt.geom.*;
 import java.util.List;
 import java.util.*;
-import java.util.logging.*;
 
+/**
+ * Paints all visible tiers of a TextGrid.  The TextGrid is read into
+ * a {@link TextGridSnapshot} each time the buffer is painted; callers
+ * which already hold a snapshot may use
+ * {@link #paintSnapshot(TextGridSnapshot, Graphics2D, Rectangle2D)}.
+ */
 public class TextGridPainter extends BufferedPainter<TextGrid> {
 	
-	private final static Logger LOGGER = Logger.getLogger(TextGridPainter.class.getName());
-	
 	private List<String> hiddenTiers = new ArrayList<>();
 
 	public TextGridPainter() {
@@ -54,6 +57,17 @@ public class TextGridPainter extends BufferedPainter<TextGrid> {
 
 	@Override
 	protected void paintBuffer(TextGrid obj, Graphics2D g2d, Rectangle2D bounds) {
+		paintSnapshot(TextGridSnapshot.of(obj), g2d, bounds);
+	}
+
+	/**
+	 * Paint all visible tiers of snapshot.
+	 *
+	 * @param obj
+	 * @param g2d
+	 * @param bounds
+	 */
+	public void paintSnapshot(TextGridSnapshot obj, Graphics2D g2d, Rectangle2D bounds) {
 		g2d.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
 		g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
@@ -66,7 +80,7 @@ public class TextGridPainter extends BufferedPainter<TextGrid> {
 		
 		int visibleTierIdx = 0;
 		for(long tIdx = 1; tIdx <= obj.numberOfTiers(); tIdx++) {
-			final Function tier = obj.tier(tIdx);
+			final TextGridSnapshot.Tier tier = obj.tier(tIdx);
 			if(isHidden(tier.getName())) continue;
 			
 			// tier rect
@@ -75,22 +89,20 @@ public class TextGridPainter extends BufferedPainter<TextGrid> {
 					bounds.getWidth(), tierHeight);
 			visibleTierIdx++;
 			
-			try {
-				final IntervalTier intervalTier = obj.checkSpecifiedTierIsIntervalTier(tIdx);
-				paintIntervalTier(intervalTier, g2d, tierRect);
-			} catch (PraatException pe) {
-				try {
-					final TextTier pointTier = obj.checkSpecifiedTierIsPointTier(tIdx);
-					paintPointTier(pointTier, g2d, tierRect);
-				} catch (PraatException pe1) {
-					LOGGER.log(Level.SEVERE, pe1.getLocalizedMessage(), pe1);
-				}
+			if(tier.isIntervalTier()) {
+				paintIntervalTier(tier, g2d, tierRect);
+			} else {
+				paintPointTier(tier, g2d, tierRect);
 			}
 		}
 	}
 	
 	public void paintTierLabel(Function tier, Graphics2D g2d, Rectangle2D bounds) {
-		final String name = (tier.getName() != null ? tier.getName().toString() : "");
+		paintTierLabel(TextGridSnapshot.tierOf(tier), g2d, bounds);
+	}
+
+	public void paintTierLabel(TextGridSnapshot.Tier tier, Graphics2D g2d, Rectangle2D bounds) {
+		final String name = tier.getName();
 		if(name.length() > 0) {
 			// get bounding rectangle of tier name
 			Rectangle2D tierNameBounds = g2d.getFontMetrics().getStringBounds(name, g2d);
@@ -111,16 +123,18 @@ public class TextGridPainter extends BufferedPainter<TextGrid> {
 	}
 	
 	public void paintIntervalTier(IntervalTier intervalTier, Graphics2D g2d, Rectangle2D bounds) {
+		paintIntervalTier(TextGridSnapshot.tierOf(intervalTier), g2d, bounds);
+	}
+
+	public void paintIntervalTier(TextGridSnapshot.Tier intervalTier, Graphics2D g2d, Rectangle2D bounds) {
 		double contentWidth = bounds.getWidth();
 		double tgLen = intervalTier.getXmax() - intervalTier.getXmin();
 		double pxPerSec = contentWidth / tgLen;
 		double xoffset = intervalTier.getXmin();
 		
-		for(long i = 1; i <= intervalTier.numberOfIntervals(); i++) {
-			final TextInterval interval = intervalTier.interval(i);
-			
-			double startX = (interval.getXmin() - xoffset) * pxPerSec;
-			double endX = (interval.getXmax() - xoffset) * pxPerSec;
+		for(long i = 1; i <= intervalTier.size(); i++) {
+			double startX = (intervalTier.getStartTime(i) - xoffset) * pxPerSec;
+			double endX = (intervalTier.getEndTime(i) - xoffset) * pxPerSec;
 			
 			g2d.setColor(Color.DARK_GRAY);
 			final Line2D startLine = new Line2D.Double(startX, bounds.getY(), startX, 
@@ -133,7 +147,7 @@ public class TextGridPainter extends BufferedPainter<TextGrid> {
 			
 			final Rectangle2D labelRect = new Rectangle2D.Double(
 					startX, bounds.getY(), endX - startX, bounds.getHeight());
-			final String labelText = interval.getText();
+			final String labelText = intervalTier.getText(i);
 			final Rectangle2D textBounds = 
 					g2d.getFontMetrics().getStringBounds(labelText, g2d);
 			
@@ -148,15 +162,19 @@ public class TextGridPainter extends BufferedPainter<TextGrid> {
 	}
 	
 	public void paintPointTier(TextTier textTier, Graphics2D g2d, Rectangle2D bounds) {
+		paintPointTier(TextGridSnapshot.tierOf(textTier), g2d, bounds);
+	}
+
+	public void paintPointTier(TextGridSnapshot.Tier textTier, Graphics2D g2d, Rectangle2D bounds) {
 		double contentWidth = bounds.getWidth();
 		double tgLen = textTier.getXmax() - textTier.getXmin();
 		double pxPerSec = contentWidth / tgLen;
 		double xoffset = textTier.getXmin();
 		
-		for(long i = 1; i <= textTier.numberOfPoints(); i++) {
-			final TextPoint tp = textTier.point(i);
+		for(long i = 1; i <= textTier.size(); i++) {
+			final String text = textTier.getText(i);
 			
-			double lineX = (tp.getNumber() - xoffset) * pxPerSec;
+			double lineX = (textTier.getStartTime(i) - xoffset) * pxPerSec;
 			
 			g2d.setColor(Color.DARK_GRAY);
 			final Line2D pointLine = new Line2D.Double(lineX, bounds.getY(), lineX,
@@ -164,7 +182,7 @@ public class TextGridPainter extends BufferedPainter<TextGrid> {
 			g2d.draw(pointLine);
 			
 			final Rectangle2D textBounds = 
-					g2d.getFontMetrics().getStringBounds(tp.getText(), g2d);
+					g2d.getFontMetrics().getStringBounds(text, g2d);
 			
 			float x = (float)(lineX - textBounds.getCenterX());
 			float y = (float)((bounds.getY() + (bounds.getHeight() / 2.0)) - (textBounds.getHeight()/2.0));
@@ -174,7 +192,7 @@ public class TextGridPainter extends BufferedPainter<TextGrid> {
 			g2d.fill(textBounds);
 			
 			g2d.setColor(Color.black);
-			g2d.drawString(tp.getText(), x, (float)(textBounds.getY() + textBounds.getHeight() - g2d.getFontMetrics().getDescent()));
+			g2d.drawString(text, x, (float)(textBounds.getY() + textBounds.getHeight() - g2d.getFontMetrics().getDescent()));
 		}
 	}
 
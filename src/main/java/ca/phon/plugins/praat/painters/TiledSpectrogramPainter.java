@@ -0,0 +1,438 @@
+/*
+ * Copyright (C) 2012-2018 Gregory Hedlund
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *    http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ca.phon.plugins.praat.painters;
+
+import ca.phon.plugins.praat.*;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Paints a {@link TiledSpectrogram}.  Frames of each tile are placed at
+ * their centre times (<code>x1 + i * dx</code>) and each tile is painted
+ * over its nominal time range only; overlapping frames are clipped.  All tiles
+ * share a single autoscaling maximum so that the stitched display is
+ * seamless.  Tiles which are not yet available are left empty.
+ *
+ * Normalised tile values are cached by the underlying
+ * {@link SpectrogramPainter}; changes to dynamic range or colour
+ * map only re-colourise.
+ *
+ * The stitched full resolution image is rendered and reduced into a
+ * {@link SpectrogramPyramid} in the background; one render is in progress
+ * at a time and the previous pyramid is painted until the new one is
+ * ready.  Painting picks the pyramid level closest to the displayed width
+ * and only copies the visible part of it, zooming and scrolling do not
+ * re-render.
+ *
+ */
+public class TiledSpectrogramPainter implements PraatPainter<TiledSpectrogram> {
+
+	private final SpectrogramPainter spectrogramPainter;
+
+	private volatile boolean repaintBuffer = true;
+
+	/* Most recently rendered spectrogram, render state and pyramid */
+	private volatile Rendered rendered;
+
+	/* Set while a render is scheduled or running */
+	private final AtomicBoolean renderPending = new AtomicBoolean(false);
+
+	private Runnable repaintCallback;
+
+	public TiledSpectrogramPainter() {
+		this(new SpectrogramSettings());
+	}
+
+	public TiledSpectrogramPainter(SpectrogramSettings settings) {
+		super();
+		this.spectrogramPainter = new SpectrogramPainter(settings);
+	}
+
+	public SpectrogramSettings getSettings() {
+		return spectrogramPainter.getSettings();
+	}
+
+	public void setSettings(SpectrogramSettings settings) {
+		spectrogramPainter.setSettings(settings);
+	}
+
+	public ColorMap getColorMap() {
+		return spectrogramPainter.getColorMap();
+	}
+
+	public void setColorMap(ColorMap colorMap) {
+		spectrogramPainter.setColorMap(colorMap);
+	}
+
+	/**
+	 * Re-render spectrogram on next paint.
+	 *
+	 * @param repaintBuffer
+	 */
+	public void setRepaintBuffer(boolean repaintBuffer) {
+		this.repaintBuffer = repaintBuffer;
+	}
+
+	public boolean isRepaintBuffer() {
+		return repaintBuffer;
+	}
+
+	/**
+	 * Callback executed (on a background thread) when a newly rendered
+	 * or built pyramid is available.
+	 *
+	 * @param repaintCallback
+	 */
+	public void setRepaintCallback(Runnable repaintCallback) {
+		this.repaintCallback = repaintCallback;
+	}
+
+	public Runnable getRepaintCallback() {
+		return repaintCallback;
+	}
+
+	@Override
+	public void paintGarnish(TiledSpectrogram spectrogram, Graphics2D g2d, Rectangle2D bounds, int location) {
+		spectrogramPainter.paintGarnish(null, g2d, bounds, location);
+	}
+
+	/**
+	 * @param spectrogram
+	 * @return width of full resolution image (one column per frame)
+	 */
+	public int getBufferWidth(TiledSpectrogram spectrogram) {
+		if(spectrogram == null || spectrogram.getDx() <= 0.0) return 0;
+		return (int)Math.ceil((spectrogram.getXMax() - spectrogram.getXMin()) / spectrogram.getDx());
+	}
+
+	/**
+	 * @param spectrogram
+	 * @return height of full resolution image (one row per frequency bin)
+	 */
+	public int getBufferHeight(TiledSpectrogram spectrogram) {
+		return (spectrogram != null ? spectrogram.getNy() : 0);
+	}
+
+	private double xForTime(TiledSpectrogram spectrogram, Rectangle2D bounds, double time) {
+		final double len = spectrogram.getXMax() - spectrogram.getXMin();
+		return bounds.getX() + ((time - spectrogram.getXMin()) / len) * bounds.getWidth();
+	}
+
+	@Override
+	public void paint(TiledSpectrogram spectrogram, Graphics2D g2d, Rectangle2D bounds) {
+		paintPyramid(getPyramid(spectrogram), g2d, bounds);
+	}
+
+	/**
+	 * Return current pyramid for spectrogram, scheduling a render of the
+	 * full resolution image in the background if necessary.  Until the
+	 * render is complete the previous pyramid of the same spectrogram is
+	 * returned.  A new pyramid object is returned whenever the rendered
+	 * image changes.
+	 *
+	 * @param spectrogram
+	 * @return pyramid or <code>null</code> if there is nothing to paint yet
+	 */
+	public SpectrogramPyramid getPyramid(TiledSpectrogram spectrogram) {
+		if(spectrogram == null) return null;
+
+		final Rendered current = rendered;
+		final boolean isCurrent = (current != null && current.spectrogram == spectrogram);
+		if(repaintBuffer || !isCurrent) {
+			scheduleRender(spectrogram);
+		}
+		return (isCurrent ? current.pyramid : null);
+	}
+
+	/**
+	 * Schedule render of spectrogram unless a render is already in
+	 * progress.  If tiles changed while rendering, the repaint callback
+	 * is executed when the render completes so that the following paint
+	 * schedules a new render.
+	 *
+	 * @param spectrogram
+	 */
+	private void scheduleRender(TiledSpectrogram spectrogram) {
+		if(!renderPending.compareAndSet(false, true)) return;
+		repaintBuffer = false;
+		AnalysisExecutor.getInstance().submit("Spectrogram render", () -> {
+			try {
+				render(spectrogram);
+			} finally {
+				renderPending.set(false);
+			}
+			if(repaintBuffer) fireRepaint();
+		});
+	}
+
+	private void fireRepaint() {
+		final Runnable callback = repaintCallback;
+		if(callback != null) callback.run();
+	}
+
+	/**
+	 * Paint visible portion of pyramid level closest to the width of bounds.
+	 *
+	 * @param pyramid may be <code>null</code>
+	 * @param g2d
+	 * @param bounds
+	 */
+	public void paintPyramid(SpectrogramPyramid pyramid, Graphics2D g2d, Rectangle2D bounds) {
+		if(pyramid == null) return;
+		drawImage(pyramid.getLevelForWidth(bounds.getWidth()), g2d, bounds);
+	}
+
+	/**
+	 * Copy visible portion of image, scaled to bounds.
+	 *
+	 * @param img
+	 * @param g2d
+	 * @param bounds
+	 */
+	private void drawImage(BufferedImage img, Graphics2D g2d, Rectangle2D bounds) {
+		final Rectangle clipBounds = g2d.getClipBounds();
+		final Rectangle2D area = (clipBounds != null ? bounds.createIntersection(clipBounds) : bounds);
+		if(area.isEmpty()) return;
+
+		final double scaleX = img.getWidth() / bounds.getWidth();
+		final int sx1 = Math.max(0, (int)Math.floor((area.getX() - bounds.getX()) * scaleX));
+		final int sx2 = Math.min(img.getWidth(), (int)Math.ceil((area.getMaxX() - bounds.getX()) * scaleX));
+		if(sx2 <= sx1) return;
+
+		final int dx1 = (int)Math.round(bounds.getX() + sx1 / scaleX);
+		final int dx2 = (int)Math.round(bounds.getX() + sx2 / scaleX);
+		final int dy1 = (int)Math.floor(bounds.getY());
+		final int dy2 = (int)Math.ceil(bounds.getMaxY());
+		g2d.drawImage(img, dx1, dy1, dx2, dy2, sx1, 0, sx2, img.getHeight(), null);
+	}
+
+	/**
+	 * Render full resolution image and build pyramid.  The single level
+	 * pyramid is published as soon as the image is rendered and replaced
+	 * by the full pyramid unless a newer render has been requested.
+	 * Called on a background thread.
+	 *
+	 * @param spectrogram
+	 */
+	private void render(TiledSpectrogram spectrogram) {
+		final int width = getBufferWidth(spectrogram);
+		final int height = getBufferHeight(spectrogram);
+		if(width <= 0 || height <= 0) {
+			rendered = new Rendered(spectrogram, null, null);
+			return;
+		}
+
+		final BufferedImage base = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		final RenderState state = createRenderState(spectrogram, base);
+		final Graphics2D g2d = base.createGraphics();
+		g2d.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+		paintTiledSpectrogram(spectrogram, state, g2d, new Rectangle2D.Double(0, 0, width, height));
+		g2d.dispose();
+
+		rendered = new Rendered(spectrogram, state, new SpectrogramPyramid(base));
+		fireRepaint();
+
+		// skip reduction if image is already out of date
+		if(repaintBuffer) return;
+		rendered = new Rendered(spectrogram, state, SpectrogramPyramid.build(base));
+		fireRepaint();
+	}
+
+	/**
+	 * Paint available tiles to graphics context
+	 *
+	 * @param spectrogram
+	 * @param g2d
+	 * @param bounds
+	 */
+	protected void paintTiledSpectrogram(TiledSpectrogram spectrogram, Graphics2D g2d, Rectangle2D bounds) {
+		paintTiledSpectrogram(spectrogram, createRenderState(spectrogram, null), g2d, bounds);
+	}
+
+	private void paintTiledSpectrogram(TiledSpectrogram spectrogram, RenderState state, Graphics2D g2d, Rectangle2D bounds) {
+		final Shape oldClip = g2d.getClip();
+		for(int i = 0; i < state.normalised.length; i++) {
+			if(state.normalised[i] == null) continue;
+
+			// frame i is centred at x1 + i * dx
+			final double tileX1 = xForTime(spectrogram, bounds, state.tileX1[i] - state.tileDx[i] / 2.0);
+			final double tileX2 = xForTime(spectrogram, bounds,
+					state.tileX1[i] + (state.normalised[i].getNx() - 0.5) * state.tileDx[i]);
+			final Rectangle2D tileRect = new Rectangle2D.Double(
+					tileX1, bounds.getY(), tileX2 - tileX1, bounds.getHeight());
+
+			// only paint nominal range of tile
+			final double clipX1 = Math.floor(xForTime(spectrogram, bounds, spectrogram.getTileStart(i)));
+			final double clipX2 = Math.ceil(xForTime(spectrogram, bounds, spectrogram.getTileEnd(i)));
+			g2d.setClip(oldClip);
+			g2d.clip(new Rectangle2D.Double(clipX1, bounds.getY(), clipX2 - clipX1, bounds.getHeight()));
+
+			spectrogramPainter.paintSpectrogram(state.normalised[i], state.maximum, g2d, tileRect);
+		}
+		g2d.setClip(oldClip);
+	}
+
+	private RenderState createRenderState(TiledSpectrogram spectrogram, BufferedImage base) {
+		final int numTiles = spectrogram.getNumTiles();
+		final NormalisedSpectrogram[] normalised = new NormalisedSpectrogram[numTiles];
+		final double[] tileX1 = new double[numTiles];
+		final double[] tileDx = new double[numTiles];
+
+		// autoscaling uses maximum of all available tiles
+		double maximum = 0.0;
+		for(int i = 0; i < numTiles; i++) {
+			final SpectrogramMatrix tile = spectrogram.getTile(i);
+			if(tile == null) continue;
+			normalised[i] = spectrogramPainter.normalise(tile);
+			tileX1[i] = tile.getX1();
+			tileDx[i] = tile.getDx();
+			maximum = Math.max(maximum, normalised[i].getMaximum());
+		}
+
+		return new RenderState(base, spectrogram.getXMin(), spectrogram.getXMax(), normalised, tileX1, tileDx,
+				maximum, getSettings().getDynamicRange(), spectrogramPainter.getColorTable());
+	}
+
+	/**
+	 * Render region of spectrogram at display resolution using bilinear
+	 * interpolation between frames and frequency bins.  Columns are
+	 * computed in parallel.  This method may be called from any thread.
+	 *
+	 * @param pyramid pyramid returned by {@link #getPyramid(TiledSpectrogram)}
+	 * @param bounds bounds of full spectrogram on display
+	 * @param region region of display to render
+	 * @return image of size <code>region.width x region.height</code> or
+	 *  <code>null</code> if the pyramid is no longer current
+	 */
+	public BufferedImage renderInterpolated(SpectrogramPyramid pyramid, Rectangle2D bounds, Rectangle region) {
+		final Rendered current = rendered;
+		final RenderState state = (current != null ? current.state : null);
+		if(state == null || pyramid == null || state.base != pyramid.getLevel(0)) return null;
+		if(region.width <= 0 || region.height <= 0 || bounds.getWidth() <= 0 || bounds.getHeight() <= 0) return null;
+
+		final int numTiles = state.normalised.length;
+		final double duration = state.xmax - state.xmin;
+		final double tileLength = duration / numTiles;
+		final int maxColorIdx = state.colors.length - 1;
+		final double minIntensity = state.maximum - state.dynamicRange;
+		final double scaleFactor = state.colors.length / state.dynamicRange;
+
+		final BufferedImage retVal = new BufferedImage(region.width, region.height, BufferedImage.TYPE_INT_ARGB);
+		final int[] pixels = ((DataBufferInt)retVal.getRaster().getDataBuffer()).getData();
+
+		IntStream.range(0, region.width).parallel().forEach( (col) -> {
+			final double time = state.xmin + ((region.x + col + 0.5) - bounds.getX()) / bounds.getWidth() * duration;
+			if(time < state.xmin || time > state.xmax) return;
+			final int tileIdx = Math.max(0, Math.min(numTiles - 1, (int)Math.floor((time - state.xmin) / tileLength)));
+			final NormalisedSpectrogram tile = state.normalised[tileIdx];
+			if(tile == null) return;
+
+			final int nx = tile.getNx();
+			final int ny = tile.getNy();
+			final float[] values = tile.getValues();
+			final double offset = tile.getDynamicCompression() * state.maximum;
+
+			final double framePos = (time - state.tileX1[tileIdx]) / state.tileDx[tileIdx];
+			final int f0 = Math.max(0, Math.min(nx - 1, (int)Math.floor(framePos)));
+			final int f1 = Math.min(nx - 1, f0 + 1);
+			final double wf = Math.max(0.0, Math.min(1.0, framePos - f0));
+
+			for(int row = 0; row < region.height; row++) {
+				final double binPos = (bounds.getMaxY() - (region.y + row + 0.5)) / bounds.getHeight() * ny - 0.5;
+				final int b0 = Math.max(0, Math.min(ny - 1, (int)Math.floor(binPos)));
+				final int b1 = Math.min(ny - 1, b0 + 1);
+				final double wb = Math.max(0.0, Math.min(1.0, binPos - b0));
+
+				final double v0 = values[f0 * ny + b0] * (1.0 - wb) + values[f0 * ny + b1] * wb;
+				final double v1 = values[f1 * ny + b0] * (1.0 - wb) + values[f1 * ny + b1] * wb;
+				final double dataVal = Math.min(state.maximum,
+						Math.max(minIntensity, v0 * (1.0 - wf) + v1 * wf + offset));
+				final int colorIdx = Math.min(maxColorIdx, (int)Math.round((dataVal - minIntensity) * scaleFactor));
+				pixels[row * region.width + col] = 0xff000000 | state.colors[colorIdx];
+			}
+		});
+
+		return retVal;
+	}
+
+	/**
+	 * Result of a render, replaced as a whole so that painting always
+	 * sees a consistent spectrogram, state and pyramid.
+	 */
+	private final static class Rendered {
+
+		private final TiledSpectrogram spectrogram;
+
+		/* null if there was nothing to render */
+		private final RenderState state;
+
+		private final SpectrogramPyramid pyramid;
+
+		public Rendered(TiledSpectrogram spectrogram, RenderState state, SpectrogramPyramid pyramid) {
+			super();
+			this.spectrogram = spectrogram;
+			this.state = state;
+			this.pyramid = pyramid;
+		}
+
+	}
+
+	/**
+	 * Values used to render the current image, kept for interpolated rendering.
+	 */
+	private final static class RenderState {
+
+		private final BufferedImage base;
+
+		private final double xmin;
+
+		private final double xmax;
+
+		private final NormalisedSpectrogram[] normalised;
+
+		/* time of first frame of each tile */
+		private final double[] tileX1;
+
+		/* time step between frames of each tile */
+		private final double[] tileDx;
+
+		private final double maximum;
+
+		private final double dynamicRange;
+
+		private final int[] colors;
+
+		public RenderState(BufferedImage base, double xmin, double xmax, NormalisedSpectrogram[] normalised,
+				double[] tileX1, double[] tileDx, double maximum, double dynamicRange, int[] colors) {
+			super();
+			this.base = base;
+			this.xmin = xmin;
+			this.xmax = xmax;
+			this.normalised = normalised;
+			this.tileX1 = tileX1;
+			this.tileDx = tileDx;
+			this.maximum = maximum;
+			this.dynamicRange = dynamicRange;
+			this.colors = colors;
+		}
+
+	}
+
+}